@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.kyrychenko.utils.vin.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+/**
+ * Runs benchmarks of operations, which should not allocate, with the GC profiler
+ * and exits with status 1 if any of them allocates.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar de.kyrychenko.utils.vin.benchmark.AllocationCheck [benchmark regexp]}
+ */
+public final class AllocationCheck {
+    /**
+     * Bytes per operation, which are tolerated as noise of measurement: less than the smallest object
+     */
+    private static final double MAX_BYTES_PER_OPERATION = 1.0;
+
+    private AllocationCheck() {
+        throw new RuntimeException("Utility class should not be initialized");
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final String include = args.length > 0 ? args[0] : VinPackingBenchmark.class.getName();
+        final Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+        final Collection<RunResult> results = new Runner(options).run();
+        boolean allocates = false;
+
+        for (final RunResult result : results) {
+            final String benchmark = result.getParams().getBenchmark();
+            final Result<?> allocation = result.getSecondaryResults().get("gc.alloc.rate.norm");
+
+            if (allocation == null) {
+                System.err.println("No allocation rate of " + benchmark + ", GC profiler is not supported");
+                allocates = true;
+            } else if (allocation.getScore() > MAX_BYTES_PER_OPERATION) {
+                System.err.printf("%s allocates %.1f bytes per operation%n", benchmark, allocation.getScore());
+                allocates = true;
+            }
+        }
+
+        if (allocates) {
+            System.exit(1);
+        }
+    }
+}
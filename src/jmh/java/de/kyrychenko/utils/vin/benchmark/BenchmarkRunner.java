@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Runs all benchmarks with the GC profiler on 1 thread, half of available processors and all available processors,
+ * writing results of every thread count to {@code benchmarks/<version>-threads-<n>.csv}.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar de.kyrychenko.utils.vin.benchmark.BenchmarkRunner <version> [benchmark regexp]}
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        throw new RuntimeException("Utility class should not be initialized");
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        if (args.length == 0) {
+            System.err.println("Usage: java -cp target/benchmarks.jar " + BenchmarkRunner.class.getName() + " <version> [benchmark regexp]");
+            System.exit(2);
+            return;
+        }
+
+        final String version = args[0];
+        final String include = args.length > 1 ? args[1] : "de.kyrychenko.utils.vin.benchmark.*";
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final Set<Integer> threads = new LinkedHashSet<>(Arrays.asList(1, Math.max(1, processors / 2), processors));
+
+        new File("benchmarks").mkdirs();
+
+        for (final int count : threads) {
+            final Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(count)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.CSV)
+                    .result("benchmarks/" + version + "-threads-" + count + ".csv")
+                    .build();
+
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin.benchmark;
+
+import de.kyrychenko.utils.vin.VinBatchValidatorUtils;
+import de.kyrychenko.utils.vin.VinGeneratorUtils;
+import de.kyrychenko.utils.vin.VinValidatorUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of fixed-width records of VIN's: table-driven batch validation
+ * of {@link VinBatchValidatorUtils} against scalar validation of every record.
+ * Time is reported per record.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VinBatchValidatorBenchmark {
+    private static final int RECORD_COUNT = 4096;
+
+    /**
+     * Share of records with an illegal or lower-case char, which are validated by the scalar path
+     */
+    @Param({"0", "0.05"})
+    public double malformedRate;
+
+    private byte[] records;
+
+    @Setup(Level.Trial)
+    public void createRecords() {
+        final Random random = new Random(42);
+        this.records = new byte[RECORD_COUNT * 17];
+
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            VinGeneratorUtils.writeRandomVin(random, this.records, i * 17);
+
+            if (random.nextDouble() < this.malformedRate) {
+                this.records[i * 17 + random.nextInt(17)] = random.nextBoolean() ? (byte) 'O' : (byte) 'a';
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public int[] scalar() {
+        final int[] results = new int[RECORD_COUNT];
+
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            results[i] = VinValidatorUtils.getVinValidationResult(this.records, i * 17, 17);
+        }
+
+        return results;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public int[] batch() {
+        return VinBatchValidatorUtils.getVinValidationResults(this.records, 0, RECORD_COUNT);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin.benchmark;
+
+import de.kyrychenko.utils.vin.VinGeneratorUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single {@link VinGeneratorUtils#getRandomVin()} call
+ * compared with the former approach, which read a random line of {@code vin-prefixes.txt} on every call
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VinGeneratorBenchmark {
+    private final Random random = new Random();
+
+    @Benchmark
+    public String getRandomVin() {
+        return VinGeneratorUtils.getRandomVin();
+    }
+
+    /**
+     * Former implementation of prefix selection: skip a random number of lines of the prefix file
+     *
+     * @return prefix line read from the file
+     * @throws IOException if file could not be read
+     */
+    @Benchmark
+    public String readRandomPrefixLine() throws IOException {
+        final int lineToRead = this.random.nextInt(62177) + 1;
+
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                VinGeneratorBenchmark.class.getResourceAsStream("/vin-prefixes.txt"), StandardCharsets.US_ASCII))) {
+            return reader.lines()
+                    .skip(lineToRead)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Line " + lineToRead + " was not found"));
+        }
+    }
+}
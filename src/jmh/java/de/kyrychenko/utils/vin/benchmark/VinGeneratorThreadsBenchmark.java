@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin.benchmark;
+
+import de.kyrychenko.utils.vin.VinGeneratorUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link VinGeneratorUtils#getRandomVin()} on 1, 4 and all available threads,
+ * compared with generation from a single {@link Random} shared by all threads
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VinGeneratorThreadsBenchmark {
+    private final Random shared = new Random();
+
+    @Benchmark
+    @Threads(1)
+    public String threadLocalRandom1() {
+        return VinGeneratorUtils.getRandomVin();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String threadLocalRandom4() {
+        return VinGeneratorUtils.getRandomVin();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String threadLocalRandomMax() {
+        return VinGeneratorUtils.getRandomVin();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String sharedRandom1() {
+        return VinGeneratorUtils.getRandomVin(this.shared);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String sharedRandom4() {
+        return VinGeneratorUtils.getRandomVin(this.shared);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String sharedRandomMax() {
+        return VinGeneratorUtils.getRandomVin(this.shared);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package de.kyrychenko.utils.vin.benchmark;
+
+import de.kyrychenko.utils.vin.VinBloomFilter;
+import de.kyrychenko.utils.vin.VinDecoderUtils;
+import de.kyrychenko.utils.vin.VinGeneratorUtils;
+import de.kyrychenko.utils.vin.VinOffHeapMap;
+import de.kyrychenko.utils.vin.VinOffHeapSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups, which pack VIN's on the fly and should not allocate: run with {@code -prof gc}
+ * or with {@link AllocationCheck}, which fails if they allocate
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VinPackingBenchmark {
+    private static final int INPUT_COUNT = 1024;
+
+    private String[] vins;
+    private VinBloomFilter filter;
+    private VinOffHeapSet set;
+    private VinOffHeapMap map;
+
+    @Setup(Level.Trial)
+    public void createVins() {
+        final Random random = new Random(42);
+        this.vins = new String[INPUT_COUNT];
+
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            this.vins[i] = VinGeneratorUtils.getRandomVin(random);
+        }
+
+        this.filter = VinBloomFilter.build(Arrays.stream(this.vins), INPUT_COUNT, 0.01);
+        this.set = VinOffHeapSet.allocate(INPUT_COUNT);
+        this.map = VinOffHeapMap.allocate(INPUT_COUNT);
+
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            this.set.add(this.vins[i]);
+            this.map.put(this.vins[i], i);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int index;
+
+        String next(final String[] vins) {
+            return vins[this.index++ & (INPUT_COUNT - 1)];
+        }
+    }
+
+    @Benchmark
+    public int decodeModelYear(final Cursor cursor) {
+        return VinDecoderUtils.getModelYear(cursor.next(this.vins));
+    }
+
+    @Benchmark
+    public int decodeSerialNumber(final Cursor cursor) {
+        return VinDecoderUtils.getSerialNumber(cursor.next(this.vins));
+    }
+
+    @Benchmark
+    public boolean bloomFilterContains(final Cursor cursor) {
+        return this.filter.mightContain(cursor.next(this.vins));
+    }
+
+    @Benchmark
+    public boolean offHeapSetContains(final Cursor cursor) {
+        return this.set.contains(cursor.next(this.vins));
+    }
+
+    @Benchmark
+    public long offHeapMapGet(final Cursor cursor) {
+        return this.map.get(cursor.next(this.vins), -1);
+    }
+}
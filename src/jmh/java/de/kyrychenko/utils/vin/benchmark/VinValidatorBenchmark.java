@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin.benchmark;
+
+import de.kyrychenko.utils.vin.InvalidVinException;
+import de.kyrychenko.utils.vin.VinGeneratorUtils;
+import de.kyrychenko.utils.vin.VinValidatorUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation and checksum calculation of {@link VinValidatorUtils} on a mix of valid and malformed VIN's
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VinValidatorBenchmark {
+    private static final int INPUT_COUNT = 1024;
+
+    /**
+     * Share of malformed VIN's: wrong length, illegal char or wrong check digit
+     */
+    @Param({"0", "0.05", "0.5"})
+    public double malformedRate;
+
+    /**
+     * Format of VIN's: upper-case, lower-case or with separators
+     */
+    @Param({"plain", "lowercase", "separators"})
+    public String format;
+
+    private String[] vins;
+
+    @Setup(Level.Trial)
+    public void createVins() {
+        final Random random = new Random(42);
+        this.vins = new String[INPUT_COUNT];
+
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            final StringBuilder vin = new StringBuilder(VinGeneratorUtils.getRandomVin(random));
+
+            if (random.nextDouble() < this.malformedRate) {
+                switch (random.nextInt(3)) {
+                    case 0:
+                        vin.deleteCharAt(random.nextInt(17));
+                        break;
+                    case 1:
+                        vin.setCharAt(random.nextInt(17), 'O');
+                        break;
+                    default:
+                        vin.setCharAt(8, vin.charAt(8) == '0' ? '1' : '0');
+                }
+            }
+
+            if ("lowercase".equals(this.format)) {
+                vin.replace(0, vin.length(), vin.toString().toLowerCase(Locale.ROOT));
+            } else if ("separators".equals(this.format)) {
+                vin.insert(Math.min(11, vin.length()), '-').insert(3, ' ');
+            }
+
+            this.vins[i] = vin.toString();
+        }
+    }
+
+    @Benchmark
+    public boolean validateVin(final Cursor cursor) {
+        try {
+            return VinValidatorUtils.validateVin(this.vins[cursor.next()]);
+        } catch (InvalidVinException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean isValidVin(final Cursor cursor) {
+        return VinValidatorUtils.isValidVin(this.vins[cursor.next()]);
+    }
+
+    @Benchmark
+    public int getVinValidationResult(final Cursor cursor) {
+        return VinValidatorUtils.getVinValidationResult(this.vins[cursor.next()]);
+    }
+
+    @Benchmark
+    public int getVinCheckSum(final Cursor cursor) {
+        try {
+            return VinValidatorUtils.getVinCheckSum(this.vins[cursor.next()]);
+        } catch (InvalidVinException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public char getVinCheckSumChar(final Cursor cursor) {
+        try {
+            return VinValidatorUtils.getVinCheckSumChar(this.vins[cursor.next()]);
+        } catch (InvalidVinException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Index of the next VIN, kept per thread
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        int next() {
+            this.index = (this.index + 1) & (INPUT_COUNT - 1);
+
+            return this.index;
+        }
+    }
+}
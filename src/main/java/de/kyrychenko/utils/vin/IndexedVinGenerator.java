@@ -0,0 +1,169 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Generator of a virtual corpus of VIN's without duplicates, where VIN is computed from its index
+ * in the corpus and a seed, so distributed workers produce disjoint ranges of the same corpus
+ * without coordination and without keeping generated VIN's.
+ * <p>
+ * Corpus is a permutation of all VIN's, built from rows of the prefix table and chars of positions 10-16
+ * ({@link #size()} of them, about 2.65 * 10^15). Index is mapped to a VIN by a keyed Feistel network
+ * of 6 rounds over the smallest even number of bits, which covers the corpus, and cycle walking:
+ * the network is applied again while the result is out of the corpus, which takes less than 2 rounds
+ * on average. Row and chars of positions 10-16 are the quotient and the remainder of the result
+ * divided by 33^7, check digit is calculated from them.
+ * <p>
+ * Corpus depends on the seed and on the prefix table, so workers should use the same version of the library.
+ * Generator is immutable and thread-safe.
+ */
+public final class IndexedVinGenerator {
+    private static final int ROUNDS = 6;
+
+    private final long size;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] keys = new long[ROUNDS];
+
+    /**
+     * Create generator of the corpus, defined by the seed
+     *
+     * @param seed seed of the permutation, generators with the same seed generate the same corpus
+     */
+    public IndexedVinGenerator(final long seed) {
+        this(seed, VinPrefixTable.getInstance().size() * VinGeneratorUtils.SERIAL_COUNT);
+    }
+
+    /**
+     * Create generator with a permutation of {@code [0, size)}
+     *
+     * @param seed seed of the permutation
+     * @param size size of the permuted range
+     */
+    IndexedVinGenerator(final long seed,
+                        final long size) {
+        this.size = size;
+        this.halfBits = (65 - Long.numberOfLeadingZeros(size - 1)) / 2;
+        this.halfMask = (1L << this.halfBits) - 1;
+
+        long state = seed;
+
+        for (int i = 0; i < ROUNDS; i++) {
+            // SplitMix64 sequence of round keys
+            state += 0x9E3779B97F4A7C15L;
+            this.keys[i] = mix(state);
+        }
+    }
+
+    /**
+     * @return number of VIN's in the corpus
+     */
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * Get VIN of the corpus by its index
+     *
+     * @param index index of VIN in range [0, {@link #size()})
+     * @return VIN with the index
+     * @throws IllegalArgumentException if index is out of the corpus
+     */
+    public String get(final long index) {
+        checkIndex(index);
+
+        final long permuted = permute(index);
+        final int row = (int) (permuted / VinGeneratorUtils.SERIAL_COUNT);
+
+        return new String(VinGeneratorUtils.fillVin(row, permuted % VinGeneratorUtils.SERIAL_COUNT, new char[17]));
+    }
+
+    /**
+     * Get VIN's of the corpus by range of indexes, generated in parallel if the stream is parallel
+     *
+     * @param fromIndex index of the first VIN, inclusive
+     * @param toIndex   index of the last VIN, exclusive
+     * @return ordered stream of VIN's with indexes in range [{@code fromIndex}, {@code toIndex})
+     * @throws IllegalArgumentException if range is out of the corpus
+     */
+    public Stream<String> getVins(final long fromIndex,
+                                  final long toIndex) {
+        if (fromIndex < 0 || toIndex > this.size || fromIndex > toIndex) {
+            throw new IllegalArgumentException("Range [" + fromIndex + ", " + toIndex + ") is out of the corpus of "
+                    + this.size + " VIN's");
+        }
+
+        return LongStream.range(fromIndex, toIndex).mapToObj(this::get);
+    }
+
+    /**
+     * Map index to its position in the permutation
+     *
+     * @param index index in range [0, size)
+     * @return position in range [0, size), distinct for distinct indexes
+     */
+    long permute(final long index) {
+        long value = index;
+
+        // cycle walking: the network permutes [0, 2^(2 * halfBits)), so it leads back to [0, size)
+        do {
+            value = encrypt(value);
+        } while (value >= this.size);
+
+        return value;
+    }
+
+    private long encrypt(final long value) {
+        long left = value >>> this.halfBits;
+        long right = value & this.halfMask;
+
+        for (final long key : this.keys) {
+            final long next = left ^ mix(right ^ key) & this.halfMask;
+            left = right;
+            right = next;
+        }
+
+        return left << this.halfBits | right;
+    }
+
+    private void checkIndex(final long index) {
+        if (index < 0 || index >= this.size) {
+            throw new IllegalArgumentException("Index " + index + " is out of the corpus of " + this.size + " VIN's");
+        }
+    }
+
+    /**
+     * Finalizer of SplitMix64
+     */
+    private static long mix(final long value) {
+        long mixed = (value ^ value >>> 30) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ mixed >>> 27) * 0x94D049BB133111EBL;
+
+        return mixed ^ mixed >>> 31;
+    }
+}
@@ -24,16 +24,28 @@
 
 package de.kyrychenko.utils.vin;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
 /**
  * Exception thrown during validation of VIN
  * in the {@link VinValidatorUtils}
+ * <p>
+ * Exceptions thrown by {@link VinValidatorUtils} wrap the result of
+ * {@link VinValidatorUtils#getVinValidationResult(CharSequence)}: they have no stack trace
+ * and build the message and the wrong VIN only when they are requested or the exception is serialized.
  */
 public class InvalidVinException extends Exception {
 
-    private final String wrongVin;
+    private final transient CharSequence vin;
+    private final int result;
+    private String wrongVin;
+    private String message;
 
     public InvalidVinException(final String wrongVin) {
         this.wrongVin = wrongVin;
+        this.vin = wrongVin;
+        this.result = -1;
     }
 
     public InvalidVinException(final String wrongVin,
@@ -41,6 +53,8 @@ public class InvalidVinException extends Exception {
         super(message);
 
         this.wrongVin = wrongVin;
+        this.vin = wrongVin;
+        this.result = -1;
     }
 
     public InvalidVinException(final String wrongVin,
@@ -49,6 +63,8 @@ public class InvalidVinException extends Exception {
         super(message, cause);
 
         this.wrongVin = wrongVin;
+        this.vin = wrongVin;
+        this.result = -1;
     }
 
     public InvalidVinException(final String wrongVin,
@@ -56,9 +72,67 @@ public class InvalidVinException extends Exception {
         super(cause);
 
         this.wrongVin = wrongVin;
+        this.vin = wrongVin;
+        this.result = -1;
+    }
+
+    /**
+     * Create exception without stack trace for a validation result
+     *
+     * @param vin    validated VIN, as it was provided for validation
+     * @param result result of {@link VinValidatorUtils#getVinValidationResult(CharSequence)} for the VIN
+     */
+    public InvalidVinException(final CharSequence vin,
+                               final int result) {
+        super(null, null, false, false);
+
+        this.vin = vin;
+        this.result = result;
     }
 
+    /**
+     * @return normalized VIN, which failed validation, as it was validated in strict mode for results of strict validation
+     */
     public String getWrongVin() {
+        if (this.wrongVin == null && this.result >= 0) {
+            this.wrongVin = VinValidatorUtils.getValidatedVin(this.vin, this.result);
+        }
+
         return this.wrongVin;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return result of {@link VinValidatorUtils#getVinValidationResult(CharSequence)},
+     * {@code -1} if exception was not created for a validation result
+     */
+    public int getResult() {
+        return this.result;
+    }
+
+    /**
+     * @return status of validation, {@code null} if exception was not created for a validation result
+     */
+    public VinValidationStatus getStatus() {
+        return this.result >= 0 ? VinValidationStatus.of(this.result) : null;
+    }
+
+    @Override
+    public String getMessage() {
+        if (this.result < 0) {
+            return super.getMessage();
+        }
+
+        if (this.message == null) {
+            this.message = VinValidatorUtils.getValidationMessage(this.vin, this.result);
+        }
+
+        return this.message;
+    }
+
+    private void writeObject(final ObjectOutputStream output) throws IOException {
+        // VIN is not serialized, so the message and the wrong VIN are built from it before
+        getWrongVin();
+        getMessage();
+        output.defaultWriteObject();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+/**
+ * Vehicle identification number (VIN), packed with {@link VinCodec}
+ * <p>
+ * Instances are compared in order of normalized VIN strings.
+ */
+public final class PackedVin implements Comparable<PackedVin> {
+    private final long high;
+    private final int low;
+
+    /**
+     * @param high packed chars 0-11, see {@link VinCodec#packHigh(CharSequence)}
+     * @param low  packed chars 12-16, see {@link VinCodec#packLow(CharSequence)}
+     */
+    public PackedVin(final long high,
+                     final int low) {
+        if (high < 0 || high >= VinCodec.HIGH_BOUND || low < 0 || low >= VinCodec.LOW_BOUND) {
+            throw new IllegalArgumentException("Wrong packed VIN: " + high + ", " + low);
+        }
+
+        this.high = high;
+        this.low = low;
+    }
+
+    public long getHigh() {
+        return this.high;
+    }
+
+    public int getLow() {
+        return this.low;
+    }
+
+    /**
+     * @return {@code true} if check digit of VIN equals to checksum
+     */
+    public boolean isValid() {
+        return VinCodec.isValidVin(this.high, this.low);
+    }
+
+    @Override
+    public int compareTo(final PackedVin other) {
+        return VinCodec.compare(this.high, this.low, other.high, other.low);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof PackedVin)) {
+            return false;
+        }
+
+        final PackedVin that = (PackedVin) other;
+
+        return this.high == that.high && this.low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) VinCodec.hash(this.high, this.low);
+    }
+
+    /**
+     * @return normalized VIN
+     */
+    @Override
+    public String toString() {
+        return VinCodec.decode(this.high, this.low);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generator of random VIN's without duplicates.
+ * <p>
+ * VIN's are taken one by one from a random permutation of all VIN's (see {@link IndexedVinGenerator}),
+ * which is seeded from the source of randomness on creation, so uniqueness needs no set of generated VIN's:
+ * generator takes constant memory, whatever number of VIN's it generates.
+ * <p>
+ * Generator is not thread-safe.
+ */
+public final class UniqueVinGenerator {
+    private final IndexedVinGenerator corpus;
+    private long count;
+
+    /**
+     * Create generator, using {@link ThreadLocalRandom}
+     */
+    public UniqueVinGenerator() {
+        this(null);
+    }
+
+    /**
+     * Create generator, using provided source of randomness.
+     * The same sequence of VIN's is generated for {@link Random}'s with the same seed.
+     *
+     * @param random source of randomness, {@code null} to use {@link ThreadLocalRandom}
+     */
+    public UniqueVinGenerator(final Random random) {
+        this.corpus = new IndexedVinGenerator(random != null ? random.nextLong() : ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Generate VIN, which was not generated by this generator before
+     *
+     * @return unique randomly generated VIN
+     * @throws IllegalStateException if all VIN's were generated
+     */
+    public String next() {
+        if (this.count == this.corpus.size()) {
+            throw new IllegalStateException("All " + this.count + " VIN's were generated");
+        }
+
+        return this.corpus.get(this.count++);
+    }
+
+    /**
+     * @return number of VIN's generated so far
+     */
+    public long size() {
+        return this.count;
+    }
+}
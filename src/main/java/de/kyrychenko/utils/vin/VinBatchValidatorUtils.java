@@ -0,0 +1,369 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * Utility class providing help methods to validate large amounts of vehicle identification numbers (VIN)
+ * <p>
+ * Every VIN is validated with {@link VinValidatorUtils#getVinValidationResult(CharSequence)}.
+ * Methods accepting {@link ForkJoinPool} split the input into chunks, validated in parallel.
+ * <p>
+ * Fixed-width records of US-ASCII encoded VIN's are validated with a table of weighted values per position
+ * and byte, see {@link #getVinValidationResults(byte[], int, int)}.
+ */
+public final class VinBatchValidatorUtils {
+    /**
+     * Number of VIN's validated by a single task, should be a multiple of 64 (bits in a word of {@link BitSet})
+     */
+    private static final int CHUNK_SIZE = 64 * 128;
+
+    /**
+     * Length of a record of US-ASCII encoded VIN
+     */
+    private static final int RECORD_LENGTH = 17;
+
+    /**
+     * Flag in {@code WEIGHTED_VALUE} of bytes, which are not upper-case chars of VIN alphabet
+     * and are validated by {@link VinValidatorUtils#getVinValidationResult(byte[], int, int)}.
+     * Sum of weighted values of a VIN is less than the flag.
+     */
+    private static final int SLOW_PATH = 1 << 16;
+
+    /**
+     * Value of byte in checksum, multiplied by weight of the position, at index {@code position << 8 | byte},
+     * or {@code SLOW_PATH}. Every char of VIN alphabet is allowed at position 8 with value 0.
+     */
+    private static final int[] WEIGHTED_VALUE = new int[RECORD_LENGTH << 8];
+
+    /**
+     * Checksum, matching check digit byte, or {@code 11} for other bytes
+     */
+    private static final int[] CHECK_DIGIT_VALUE = new int[256];
+
+    private static final int VALID = VinValidationStatus.VALID.ordinal();
+    private static final int ILLEGAL_CHECK_DIGIT = VinValidationStatus.ILLEGAL_CHECK_DIGIT.ordinal();
+    private static final int CHECK_DIGIT_MISMATCH = VinValidationStatus.CHECK_DIGIT_MISMATCH.ordinal();
+
+    static {
+        Arrays.fill(WEIGHTED_VALUE, SLOW_PATH);
+        Arrays.fill(CHECK_DIGIT_VALUE, 11);
+
+        for (int position = 0; position < RECORD_LENGTH; position++) {
+            for (final char key : VinGeneratorUtils.ALLOWED_CHARS.toCharArray()) {
+                WEIGHTED_VALUE[position << 8 | key] =
+                        VinValidatorUtils.getCharValue(key) * VinValidatorUtils.VIN_POSITION_WEIGHT[position];
+            }
+        }
+
+        for (int digit = 0; digit < 10; digit++) {
+            CHECK_DIGIT_VALUE['0' + digit] = digit;
+        }
+
+        CHECK_DIGIT_VALUE['X'] = 10;
+    }
+
+    private VinBatchValidatorUtils() {
+        throw new RuntimeException("Utility class should not be initialized");
+    }
+
+    /**
+     * Validate array of VIN's
+     *
+     * @param vins VIN's to validate
+     * @return set with indexes of valid VIN's
+     */
+    public static BitSet getValidVins(final CharSequence[] vins) {
+        return getValidVins(Arrays.asList(vins));
+    }
+
+    /**
+     * Validate array of VIN's in parallel
+     *
+     * @param vins VIN's to validate
+     * @param pool pool to run validation in
+     * @return set with indexes of valid VIN's
+     */
+    public static BitSet getValidVins(final CharSequence[] vins,
+                                      final ForkJoinPool pool) {
+        return getValidVins(Arrays.asList(vins), pool);
+    }
+
+    /**
+     * Validate list of VIN's
+     *
+     * @param vins VIN's to validate
+     * @return set with indexes of valid VIN's
+     */
+    public static BitSet getValidVins(final List<? extends CharSequence> vins) {
+        final List<? extends CharSequence> list = randomAccess(vins);
+        final long[] words = new long[words(list.size())];
+
+        new ValidityTask(list, words, 0, list.size()).compute();
+
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Validate list of VIN's in parallel
+     *
+     * @param vins VIN's to validate
+     * @param pool pool to run validation in
+     * @return set with indexes of valid VIN's
+     */
+    public static BitSet getValidVins(final List<? extends CharSequence> vins,
+                                      final ForkJoinPool pool) {
+        final List<? extends CharSequence> list = randomAccess(vins);
+        final long[] words = new long[words(list.size())];
+
+        pool.invoke(new ValidityTask(list, words, 0, list.size()));
+
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Validate stream of VIN's.
+     * Parallel stream is collected into an array first and validated in the common {@link ForkJoinPool}.
+     *
+     * @param vins VIN's to validate
+     * @return set with indexes (in encounter order) of valid VIN's
+     */
+    public static BitSet getValidVins(final Stream<? extends CharSequence> vins) {
+        if (vins.isParallel()) {
+            return getValidVins(vins.toArray(CharSequence[]::new), ForkJoinPool.commonPool());
+        }
+
+        final BitSet valid = new BitSet();
+        final Iterator<? extends CharSequence> iterator = vins.iterator();
+
+        for (int i = 0; iterator.hasNext(); i++) {
+            if (isValid(VinValidatorUtils.getVinValidationResult(iterator.next()))) {
+                valid.set(i);
+            }
+        }
+
+        return valid;
+    }
+
+    /**
+     * Validate array of VIN's, keeping result of every VIN
+     *
+     * @param vins VIN's to validate
+     * @return results of {@link VinValidatorUtils#getVinValidationResult(CharSequence)} for every VIN
+     */
+    public static int[] getVinValidationResults(final CharSequence[] vins) {
+        return getVinValidationResults(Arrays.asList(vins));
+    }
+
+    /**
+     * Validate array of VIN's in parallel, keeping result of every VIN
+     *
+     * @param vins VIN's to validate
+     * @param pool pool to run validation in
+     * @return results of {@link VinValidatorUtils#getVinValidationResult(CharSequence)} for every VIN
+     */
+    public static int[] getVinValidationResults(final CharSequence[] vins,
+                                                final ForkJoinPool pool) {
+        return getVinValidationResults(Arrays.asList(vins), pool);
+    }
+
+    /**
+     * Validate list of VIN's, keeping result of every VIN
+     *
+     * @param vins VIN's to validate
+     * @return results of {@link VinValidatorUtils#getVinValidationResult(CharSequence)} for every VIN
+     */
+    public static int[] getVinValidationResults(final List<? extends CharSequence> vins) {
+        final List<? extends CharSequence> list = randomAccess(vins);
+        final int[] results = new int[list.size()];
+
+        new ResultTask(list, results, 0, list.size()).compute();
+
+        return results;
+    }
+
+    /**
+     * Validate list of VIN's in parallel, keeping result of every VIN
+     *
+     * @param vins VIN's to validate
+     * @param pool pool to run validation in
+     * @return results of {@link VinValidatorUtils#getVinValidationResult(CharSequence)} for every VIN
+     */
+    public static int[] getVinValidationResults(final List<? extends CharSequence> vins,
+                                                final ForkJoinPool pool) {
+        final List<? extends CharSequence> list = randomAccess(vins);
+        final int[] results = new int[list.size()];
+
+        pool.invoke(new ResultTask(list, results, 0, list.size()));
+
+        return results;
+    }
+
+    /**
+     * Validate fixed-width records of US-ASCII encoded VIN's, stored one after another without delimiters.
+     * <p>
+     * A record of upper-case chars of VIN alphabet is validated without branches per char:
+     * weighted values of its bytes are looked up in a table per position and summed up.
+     * Other records (with lower-case letters, separators or illegal chars) fall back
+     * to {@link VinValidatorUtils#getVinValidationResult(byte[], int, int)}, so results are the same for every record.
+     *
+     * @param records array with records of 17 bytes
+     * @param offset  index of the first byte of the first record
+     * @param count   number of records
+     * @return results of {@link VinValidatorUtils#getVinValidationResult(byte[], int, int)} for every record
+     */
+    public static int[] getVinValidationResults(final byte[] records,
+                                                final int offset,
+                                                final int count) {
+        if (offset < 0 || count < 0 || offset > records.length - (long) count * RECORD_LENGTH) {
+            throw new IndexOutOfBoundsException("No room for " + count + " records at " + offset + " in array of length " + records.length);
+        }
+
+        final int[] results = new int[count];
+        final VinValidationMetrics metrics = VinValidationMetrics.enabled;
+
+        for (int i = 0, start = offset; i < count; i++, start += RECORD_LENGTH) {
+            int weightedSum = 0;
+
+            for (int position = 0; position < RECORD_LENGTH; position++) {
+                weightedSum += WEIGHTED_VALUE[position << 8 | records[start + position] & 0xFF];
+            }
+
+            if (weightedSum >= SLOW_PATH) {
+                results[i] = VinValidatorUtils.getVinValidationResult(records, start, RECORD_LENGTH);
+                continue;
+            }
+
+            final int checkSum = weightedSum % 11;
+            final int checkDigit = CHECK_DIGIT_VALUE[records[start + 8] & 0xFF];
+            final int status = checkDigit == checkSum
+                    ? VALID
+                    : checkDigit == 11 ? ILLEGAL_CHECK_DIGIT : CHECK_DIGIT_MISMATCH;
+
+            results[i] = status | checkSum << 16;
+
+            if (metrics != null) {
+                metrics.record(results[i]);
+            }
+        }
+
+        return results;
+    }
+
+    private static List<? extends CharSequence> randomAccess(final List<? extends CharSequence> vins) {
+        return vins instanceof RandomAccess ? vins : new ArrayList<>(vins);
+    }
+
+    private static boolean isValid(final int result) {
+        return VinValidationStatus.of(result) == VinValidationStatus.VALID;
+    }
+
+    private static int words(final int size) {
+        return (size + 63) >>> 6;
+    }
+
+    /**
+     * Task setting bits of valid VIN's. Tasks are split at multiples of 64,
+     * so every task writes own words of the bit set.
+     */
+    private static final class ValidityTask extends RecursiveAction {
+        private final List<? extends CharSequence> vins;
+        private final long[] words;
+        private final int from;
+        private final int to;
+
+        ValidityTask(final List<? extends CharSequence> vins,
+                     final long[] words,
+                     final int from,
+                     final int to) {
+            this.vins = vins;
+            this.words = words;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > CHUNK_SIZE) {
+                final int chunks = (this.to - this.from + CHUNK_SIZE - 1) / CHUNK_SIZE;
+                final int middle = this.from + chunks / 2 * CHUNK_SIZE;
+
+                invokeAll(new ValidityTask(this.vins, this.words, this.from, middle),
+                        new ValidityTask(this.vins, this.words, middle, this.to));
+                return;
+            }
+
+            for (int i = this.from; i < this.to; i++) {
+                if (isValid(VinValidatorUtils.getVinValidationResult(this.vins.get(i)))) {
+                    this.words[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Task saving result of every VIN
+     */
+    private static final class ResultTask extends RecursiveAction {
+        private final List<? extends CharSequence> vins;
+        private final int[] results;
+        private final int from;
+        private final int to;
+
+        ResultTask(final List<? extends CharSequence> vins,
+                   final int[] results,
+                   final int from,
+                   final int to) {
+            this.vins = vins;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > CHUNK_SIZE) {
+                final int middle = this.from + (this.to - this.from) / 2;
+
+                invokeAll(new ResultTask(this.vins, this.results, this.from, middle),
+                        new ResultTask(this.vins, this.results, middle, this.to));
+                return;
+            }
+
+            for (int i = this.from; i < this.to; i++) {
+                this.results[i] = VinValidatorUtils.getVinValidationResult(this.vins.get(i));
+            }
+        }
+    }
+}
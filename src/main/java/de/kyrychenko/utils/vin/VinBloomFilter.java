@@ -0,0 +1,238 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Immutable Bloom filter of VIN's, a compact approximate set for membership checks with little memory:
+ * {@link #mightContain(CharSequence)} is always {@code true} for VIN's of the filter
+ * and is {@code true} for other VIN's with the configured false positive rate
+ * (1% takes 1.2 bytes per VIN, 0.1% takes 1.8 bytes per VIN).
+ * <p>
+ * VIN is hashed in packed form (see {@link VinCodec}), which is computed straight from the chars,
+ * normalized as by {@link VinValidatorUtils#normalizeVin(CharSequence)}, without allocation.
+ * Bits of VIN are chosen by double hashing of {@link VinCodec#hash(long, int)}.
+ * <p>
+ * Filter is built from a stream of VIN's (in parallel, if the stream is parallel: threads set bits
+ * of a single array with CAS) and serialized to bytes for distribution: magic number, format version,
+ * number of hash functions and number of bits, followed by the bits as {@code long}'s.
+ * Lookups do not change the filter, so they are safe from any thread.
+ */
+public final class VinBloomFilter {
+    /**
+     * "VINB" in US-ASCII
+     */
+    private static final int MAGIC = 0x56494E42;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private VinBloomFilter(final AtomicLongArray words,
+                           final long bitCount,
+                           final int hashCount) {
+        this.words = words;
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Build filter of VIN's
+     *
+     * @param vins               VIN's of the filter, a parallel stream is collected in parallel
+     * @param expectedInsertions expected number of VIN's, false positive rate grows if there are more of them
+     * @param falsePositiveRate  probability of {@code true} for a VIN, which is not in the filter
+     * @return built filter
+     * @throws IllegalArgumentException if parameters are out of range or the stream has a VIN, which could not be packed
+     */
+    public static VinBloomFilter build(final Stream<? extends CharSequence> vins,
+                                       final long expectedInsertions,
+                                       final double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Expected insertions should be positive, but was " + expectedInsertions);
+        }
+
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate should be in (0, 1), but was " + falsePositiveRate);
+        }
+
+        // optimal number of bits and of hash functions for the expected number of VIN's
+        final double bitsPerVin = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        final long wordCount = (long) Math.ceil(expectedInsertions * bitsPerVin / Long.SIZE);
+
+        if (wordCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Filter of " + expectedInsertions + " VIN's is too large");
+        }
+
+        final long bitCount = wordCount * Long.SIZE;
+        final int hashCount = Math.max(1, (int) Math.round(bitsPerVin * Math.log(2)));
+
+        // threads of a parallel stream set bits of the same words, so there are no per-thread copies
+        final AtomicLongArray words = new AtomicLongArray((int) wordCount);
+        vins.forEach(vin -> add(words, bitCount, hashCount, vin));
+
+        return new VinBloomFilter(words, bitCount, hashCount);
+    }
+
+    private static void add(final AtomicLongArray words,
+                            final long bitCount,
+                            final int hashCount,
+                            final CharSequence vin) {
+        final long[] packed = VinCodec.tryPack(vin);
+
+        if (packed == null) {
+            throw new IllegalArgumentException("Provided VIN could not be added to filter: " + vin);
+        }
+
+        final long hash = VinCodec.hash(packed[0], (int) packed[1]);
+        final long step = Long.rotateLeft(hash, 32) | 1;
+        long combined = hash;
+
+        for (int i = 0; i < hashCount; i++) {
+            final long bit = VinCodec.scale(combined, bitCount);
+            final int index = (int) (bit >>> 6);
+            final long mask = 1L << bit;
+            long word = words.get(index);
+
+            // CAS only if the bit is not set yet
+            while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                word = words.get(index);
+            }
+
+            combined += step;
+        }
+    }
+
+    /**
+     * Check whether VIN might be in the filter
+     *
+     * @param vin VIN to check
+     * @return {@code false} if VIN is definitely not in the filter (including VIN's, which could not be packed),
+     * {@code true} if VIN is in the filter or is a false positive
+     */
+    public boolean mightContain(final CharSequence vin) {
+        final long[] packed = VinCodec.tryPack(vin);
+
+        return packed != null && mightContain(packed[0], (int) packed[1]);
+    }
+
+    /**
+     * Check whether packed VIN might be in the filter
+     *
+     * @param high packed chars 0-11
+     * @param low  packed chars 12-16
+     * @return {@code false} if VIN is definitely not in the filter, {@code true} if VIN is in the filter or is a false positive
+     */
+    public boolean mightContain(final long high,
+                                final int low) {
+        final long hash = VinCodec.hash(high, low);
+        final long step = Long.rotateLeft(hash, 32) | 1;
+        long combined = hash;
+
+        for (int i = 0; i < this.hashCount; i++) {
+            final long bit = VinCodec.scale(combined, this.bitCount);
+
+            if ((this.words.get((int) (bit >>> 6)) & 1L << bit) == 0) {
+                return false;
+            }
+
+            combined += step;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return number of bits in the filter
+     */
+    public long getBitCount() {
+        return this.bitCount;
+    }
+
+    /**
+     * @return number of bits, set for every VIN
+     */
+    public int getHashCount() {
+        return this.hashCount;
+    }
+
+    /**
+     * Serialize the filter
+     *
+     * @return bytes of the filter, which are read by {@link #fromBytes(byte[])}
+     */
+    public byte[] toBytes() {
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + this.words.length() * Long.BYTES);
+
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(this.hashCount);
+        buffer.putLong(this.bitCount);
+
+        for (int i = 0; i < this.words.length(); i++) {
+            buffer.putLong(this.words.get(i));
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Deserialize a filter
+     *
+     * @param bytes bytes of a filter, written by {@link #toBytes()}
+     * @return deserialized filter
+     * @throws IllegalArgumentException if bytes are not a serialized filter
+     */
+    public static VinBloomFilter fromBytes(final byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Bytes are not a serialized VIN filter");
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final int magic = buffer.getInt();
+        final int version = buffer.getInt();
+        final int hashCount = buffer.getInt();
+        final long bitCount = buffer.getLong();
+
+        if (magic != MAGIC || version != VERSION || hashCount < 1 || bitCount < Long.SIZE
+                || bitCount % Long.SIZE != 0 || bitCount / Long.SIZE != (bytes.length - HEADER_SIZE) / Long.BYTES
+                || (bytes.length - HEADER_SIZE) % Long.BYTES != 0) {
+            throw new IllegalArgumentException("Bytes are not a serialized VIN filter");
+        }
+
+        final AtomicLongArray words = new AtomicLongArray((int) (bitCount / Long.SIZE));
+
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, buffer.getLong());
+        }
+
+        return new VinBloomFilter(words, bitCount, hashCount);
+    }
+}
@@ -0,0 +1,464 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Utility class providing help methods to pack vehicle identification number (VIN) into primitives.
+ * <p>
+ * Every char of normalized VIN is a digit of base 33 (index in {@link VinGeneratorUtils#ALLOWED_CHARS}).
+ * Chars 0-11 are packed into a {@code long} ({@code high}, below 33^12) and chars 12-16 into an {@code int}
+ * ({@code low}, below 33^5), so a VIN takes 12 bytes instead of about 56 bytes of a {@link String}.
+ * Order of packed VIN's equals to order of normalized VIN strings.
+ * <p>
+ * Any VIN, which length (without additional characters) is 17 and which has no illegal chars,
+ * could be packed, also VIN with wrong check digit. Such VIN's are detected with {@link #isValidVin(long, int)}.
+ */
+public final class VinCodec {
+    /**
+     * Upper bound of packed chars 0-11: 33^12
+     */
+    public static final long HIGH_BOUND = 1667889514952984961L;
+
+    /**
+     * Upper bound of packed chars 12-16: 33^5
+     */
+    public static final int LOW_BOUND = 39135393;
+
+    private static final int HIGH_CHARS = 12;
+
+    /**
+     * Index of ASCII char in {@link VinGeneratorUtils#ALLOWED_CHARS}, lower-case letters are folded,
+     * {@code -1} for separators, {@code -2} for illegal chars
+     */
+    private static final byte[] ASCII_DIGIT = new byte[128];
+
+    /**
+     * Value of base 33 digit in checksum
+     */
+    private static final int[] DIGIT_VALUE = new int[33];
+
+    /**
+     * Destination of {@link #tryPack(CharSequence)} per thread, so VIN's are packed in a single pass without allocation
+     */
+    private static final ThreadLocal<long[]> PACKED = ThreadLocal.withInitial(() -> new long[2]);
+
+    static {
+        for (int c = 0; c < ASCII_DIGIT.length; c++) {
+            final boolean letterOrDigit = (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+            final int digit = VinGeneratorUtils.ALLOWED_CHARS.indexOf(c >= 'a' && c <= 'z' ? c - 'a' + 'A' : c);
+
+            ASCII_DIGIT[c] = (byte) (digit >= 0 ? digit : letterOrDigit ? -2 : -1);
+        }
+
+        for (int digit = 0; digit < DIGIT_VALUE.length; digit++) {
+            DIGIT_VALUE[digit] = VinValidatorUtils.getCharValue(VinGeneratorUtils.ALLOWED_CHARS.charAt(digit));
+        }
+    }
+
+    private VinCodec() {
+        throw new RuntimeException("Utility class should not be initialized");
+    }
+
+    /**
+     * Pack chars 0-11 of VIN
+     *
+     * @param vin VIN to pack, normalized in the same way as by {@link VinValidatorUtils}
+     * @return packed chars 0-11 of VIN
+     * @throws IllegalArgumentException if VIN could not be packed
+     */
+    public static long packHigh(final CharSequence vin) {
+        return packed(vin)[0];
+    }
+
+    /**
+     * Pack chars 12-16 of VIN
+     *
+     * @param vin VIN to pack, normalized in the same way as by {@link VinValidatorUtils}
+     * @return packed chars 12-16 of VIN
+     * @throws IllegalArgumentException if VIN could not be packed
+     */
+    public static int packLow(final CharSequence vin) {
+        return (int) packed(vin)[1];
+    }
+
+    /**
+     * Pack VIN into an object
+     *
+     * @param vin VIN to pack, normalized in the same way as by {@link VinValidatorUtils}
+     * @return packed VIN
+     * @throws IllegalArgumentException if VIN could not be packed
+     */
+    public static PackedVin pack(final CharSequence vin) {
+        final long[] packed = packed(vin);
+
+        return new PackedVin(packed[0], (int) packed[1]);
+    }
+
+    /**
+     * Check whether VIN could be packed
+     *
+     * @param vin VIN to check
+     * @return {@code true} if normalized VIN has length 17 and no illegal chars
+     */
+    public static boolean isPackable(final CharSequence vin) {
+        return tryPack(vin) != null;
+    }
+
+    /**
+     * Decode packed VIN
+     *
+     * @param high packed chars 0-11
+     * @param low  packed chars 12-16
+     * @return normalized VIN
+     */
+    public static String decode(final long high,
+                                final int low) {
+        checkPacked(high, low);
+
+        final char[] vin = new char[17];
+        long restHigh = high;
+        int restLow = low;
+
+        for (int i = 16; i >= HIGH_CHARS; i--) {
+            vin[i] = VinGeneratorUtils.ALLOWED_CHARS.charAt(restLow % 33);
+            restLow /= 33;
+        }
+
+        for (int i = HIGH_CHARS - 1; i >= 0; i--) {
+            vin[i] = VinGeneratorUtils.ALLOWED_CHARS.charAt((int) (restHigh % 33));
+            restHigh /= 33;
+        }
+
+        return new String(vin);
+    }
+
+    /**
+     * Check whether packed VIN is valid, without decoding it
+     *
+     * @param high packed chars 0-11
+     * @param low  packed chars 12-16
+     * @return {@code true} if check digit of VIN equals to checksum
+     */
+    public static boolean isValidVin(final long high,
+                                     final int low) {
+        checkPacked(high, low);
+
+        int sum = 0;
+        int check = 0;
+        long restHigh = high;
+        int restLow = low;
+
+        for (int i = 16; i >= HIGH_CHARS; i--) {
+            sum += DIGIT_VALUE[restLow % 33] * VinValidatorUtils.VIN_POSITION_WEIGHT[i];
+            restLow /= 33;
+        }
+
+        for (int i = HIGH_CHARS - 1; i >= 0; i--) {
+            final int digit = (int) (restHigh % 33);
+
+            sum += DIGIT_VALUE[digit] * VinValidatorUtils.VIN_POSITION_WEIGHT[i];
+            restHigh /= 33;
+
+            if (i == 8) {
+                check = digit;
+            }
+        }
+
+        sum %= 11;
+
+        // digits 0-9 are chars '0'-'9', 'X' is digit 30
+        return check < 10 ? sum == check : check == 30 && sum == 10;
+    }
+
+    /**
+     * Compare packed VIN's in order of normalized VIN strings
+     *
+     * @param high1 packed chars 0-11 of the first VIN
+     * @param low1  packed chars 12-16 of the first VIN
+     * @param high2 packed chars 0-11 of the second VIN
+     * @param low2  packed chars 12-16 of the second VIN
+     * @return negative number, zero, or positive number as the first VIN is less than, equal to, or greater than the second one
+     */
+    public static int compare(final long high1,
+                              final int low1,
+                              final long high2,
+                              final int low2) {
+        final int result = Long.compare(high1, high2);
+
+        return result != 0 ? result : Integer.compare(low1, low2);
+    }
+
+    /**
+     * Hash of packed VIN
+     *
+     * @param high packed chars 0-11
+     * @param low  packed chars 12-16
+     * @return well-distributed 64-bit hash of the VIN
+     */
+    public static long hash(final long high,
+                            final int low) {
+        long hash = high * 0x9E3779B97F4A7C15L + low;
+
+        // finalizer of MurmurHash3
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    /**
+     * Pack first chars of normalized VIN, ignoring the rest of it
+     *
+     * @param vin   VIN to pack, normalized in the same way as by {@link VinValidatorUtils}
+     * @param count number of chars to pack, at most 12
+     * @return packed chars, {@code -1} if VIN is {@code null}, shorter or has illegal chars among them
+     */
+    static long packPrefix(final CharSequence vin,
+                           final int count) {
+        if (vin == null) {
+            return -1;
+        }
+
+        long packed = 0;
+        int position = 0;
+
+        for (int i = 0, length = vin.length(); i < length && position < count; i++) {
+            final char key = vin.charAt(i);
+
+            if (key >= ASCII_DIGIT.length || key == 'i') {
+                return packPrefix(VinValidatorUtils.normalizeVin(vin), count);
+            }
+
+            final int digit = ASCII_DIGIT[key];
+
+            if (digit == -2) {
+                return -1;
+            }
+
+            if (digit >= 0) {
+                packed = packed * 33 + digit;
+                position++;
+            }
+        }
+
+        return position == count ? packed : -1;
+    }
+
+    /**
+     * Map hash to range {@code [0, bound)} by multiplication, which is faster than division:
+     * upper 64 bits of unsigned 128-bit product of the hash and the bound
+     *
+     * @param hash  well-distributed 64-bit hash
+     * @param bound positive upper bound of the result
+     * @return scaled hash
+     */
+    static long scale(final long hash,
+                      final long bound) {
+        final long hash1 = hash >>> 32;
+        final long hash0 = hash & 0xFFFFFFFFL;
+        final long bound1 = bound >>> 32;
+        final long bound0 = bound & 0xFFFFFFFFL;
+        final long middle = hash1 * bound0 + (hash0 * bound0 >>> 32);
+
+        return hash1 * bound1 + (middle >>> 32) + ((middle & 0xFFFFFFFFL) + hash0 * bound1 >>> 32);
+    }
+
+    /**
+     * Pack VIN in a single pass without exceptions and allocation.
+     * Packed chars are returned in an array of the current thread, which is overwritten by the next call
+     * on the thread, so they should be read at once.
+     *
+     * @param vin VIN to pack, normalized in the same way as by {@link VinValidatorUtils}
+     * @return array of the current thread with packed chars 0-11 (at index 0) and 12-16 (at index 1),
+     * {@code null} if VIN could not be packed
+     */
+    static long[] tryPack(final CharSequence vin) {
+        final long[] packed = PACKED.get();
+
+        return tryPack(vin, packed) ? packed : null;
+    }
+
+    /**
+     * Pack VIN in a single pass without exceptions
+     *
+     * @param vin    VIN to pack, normalized in the same way as by {@link VinValidatorUtils}
+     * @param packed destination of packed chars 0-11 (at index 0) and 12-16 (at index 1)
+     * @return {@code true} if VIN was packed, {@code false} if it could not be packed
+     */
+    static boolean tryPack(final CharSequence vin,
+                           final long[] packed) {
+        if (vin == null) {
+            return false;
+        }
+
+        if (vin.length() == 17 && tryPackChars(vin, packed)) {
+            return true;
+        }
+
+        long high = 0;
+        long low = 0;
+        int position = 0;
+
+        for (int i = 0, length = vin.length(); i < length; i++) {
+            final char key = vin.charAt(i);
+
+            if (key >= ASCII_DIGIT.length || key == 'i') {
+                // normalization of the char depends on locale or is not a plain case folding
+                return tryPack(VinValidatorUtils.normalizeVin(vin), packed);
+            }
+
+            final int digit = ASCII_DIGIT[key];
+
+            if (digit == -1) {
+                continue;
+            }
+
+            if (digit == -2 || position >= 17) {
+                return false;
+            }
+
+            if (position < HIGH_CHARS) {
+                high = high * 33 + digit;
+            } else {
+                low = low * 33 + digit;
+            }
+
+            position++;
+        }
+
+        packed[0] = high;
+        packed[1] = low;
+
+        return position == 17;
+    }
+
+    /**
+     * Pack 17 chars of VIN alphabet (upper- or lower-case) without branches per char,
+     * which is the common case of VIN without separators
+     *
+     * @return {@code true} if VIN was packed, {@code false} if it has other chars
+     */
+    private static boolean tryPackChars(final CharSequence vin,
+                                        final long[] packed) {
+        long high = 0;
+        long low = 0;
+        int check = 0;
+
+        for (int i = 0; i < HIGH_CHARS; i++) {
+            final char key = vin.charAt(i);
+            final int digit = ASCII_DIGIT[key & 0x7F];
+
+            // negative for chars out of ASCII and chars, which are not digits of VIN
+            check |= digit | (0x7F - key);
+            high = high * 33 + digit;
+        }
+
+        for (int i = HIGH_CHARS; i < 17; i++) {
+            final char key = vin.charAt(i);
+            final int digit = ASCII_DIGIT[key & 0x7F];
+
+            check |= digit | (0x7F - key);
+            low = low * 33 + digit;
+        }
+
+        if (check < 0) {
+            return false;
+        }
+
+        packed[0] = high;
+        packed[1] = low;
+
+        return true;
+    }
+
+    /**
+     * Pack chars 0-11 of US-ASCII encoded VIN at absolute index of the buffer without exceptions,
+     * normalizing bytes as {@link VinValidatorUtils#getVinValidationResult(ByteBuffer, int, int)} does
+     *
+     * @param vin    buffer with VIN
+     * @param offset absolute index of the first byte of VIN
+     * @param length number of bytes of VIN
+     * @return packed chars, {@code -1} if VIN could not be packed
+     */
+    static long tryPackHigh(final ByteBuffer vin,
+                            final int offset,
+                            final int length) {
+        long packed = 0;
+        int position = 0;
+
+        for (int i = offset, end = offset + length; i < end; i++) {
+            final int key = vin.get(i) & 0xFF;
+
+            // bytes out of ASCII are separators
+            final int digit = key < ASCII_DIGIT.length ? ASCII_DIGIT[key] : -1;
+
+            if (digit == -1) {
+                continue;
+            }
+
+            if (digit == -2 || position >= 17) {
+                return -1;
+            }
+
+            if (position < HIGH_CHARS) {
+                packed = packed * 33 + digit;
+            }
+
+            position++;
+        }
+
+        return position == 17 ? packed : -1;
+    }
+
+    private static long[] packed(final CharSequence vin) {
+        if (vin == null) {
+            throw new IllegalArgumentException("VIN should not be null");
+        }
+
+        final long[] packed = tryPack(vin);
+
+        if (packed == null) {
+            throw notPackable(vin);
+        }
+
+        return packed;
+    }
+
+    private static IllegalArgumentException notPackable(final CharSequence vin) {
+        return new IllegalArgumentException(VinValidatorUtils.getValidationMessage(vin, VinValidatorUtils.validate(vin)));
+    }
+
+    private static void checkPacked(final long high,
+                                    final int low) {
+        if (high < 0 || high >= HIGH_BOUND || low < 0 || low >= LOW_BOUND) {
+            throw new IllegalArgumentException("Wrong packed VIN: " + high + ", " + low);
+        }
+    }
+}
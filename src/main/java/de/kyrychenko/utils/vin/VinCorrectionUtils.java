@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Utility class providing help methods to correct typos in vehicle identification numbers (VIN),
+ * entered manually or recognized from images.
+ * <p>
+ * Letters, which are not allowed in VIN, are replaced by similar digits ({@code I} by {@code 1},
+ * {@code O} and {@code Q} by {@code 0}). If checksum of the result does not match the check digit,
+ * single substitutions, which match it, are solved directly: checksum is a weighted sum modulo 11 (a prime),
+ * so for every position there is only one value of char, which fixes the checksum,
+ * found with the inverse of the position weight. Only chars with this value are tried.
+ * <p>
+ * Candidates are checked against the bundled prefix data: if WMI, VDS and model year of some candidates are known,
+ * only these candidates are returned.
+ */
+public final class VinCorrectionUtils {
+    private static final int[] WEIGHT = VinValidatorUtils.VIN_POSITION_WEIGHT;
+
+    /**
+     * Inverse of weight modulo 11 by weight
+     */
+    private static final int[] WEIGHT_INVERSE = new int[11];
+
+    /**
+     * Chars of VIN alphabet by their value in checksum
+     */
+    private static final char[][] CHARS_BY_VALUE = new char[10][];
+
+    static {
+        for (int weight = 1; weight < 11; weight++) {
+            for (int inverse = 1; inverse < 11; inverse++) {
+                if (weight * inverse % 11 == 1) {
+                    WEIGHT_INVERSE[weight] = inverse;
+                }
+            }
+        }
+
+        for (int value = 0; value < CHARS_BY_VALUE.length; value++) {
+            final StringBuilder chars = new StringBuilder();
+
+            for (final char key : VinGeneratorUtils.ALLOWED_CHARS.toCharArray()) {
+                if (VinValidatorUtils.getCharValue(key) == value) {
+                    chars.append(key);
+                }
+            }
+
+            CHARS_BY_VALUE[value] = chars.toString().toCharArray();
+        }
+    }
+
+    private VinCorrectionUtils() {
+        throw new RuntimeException("Utility class should not be initialized");
+    }
+
+    /**
+     * Get valid VIN's, which differ from the provided VIN by replacement of illegal letters
+     * and at most one substituted char
+     *
+     * @param vin VIN to correct, normalized in the same way as by {@link VinValidatorUtils}
+     * @return normalized valid VIN's: the VIN itself, if it is valid (after replacement of illegal letters),
+     * otherwise candidates with one substituted char; empty if normalized VIN has wrong length
+     */
+    public static List<String> getCorrections(final CharSequence vin) {
+        final char[] chars = normalize(vin);
+
+        if (chars == null) {
+            return Collections.emptyList();
+        }
+
+        int sum = 0;
+
+        for (int i = 0; i < 17; i++) {
+            sum += VinValidatorUtils.getCharValue(chars[i]) * WEIGHT[i];
+        }
+
+        sum %= 11;
+
+        final int check = chars[8] == 'X' ? 10 : chars[8] >= '0' && chars[8] <= '9' ? chars[8] - '0' : -1;
+
+        if (check == sum) {
+            return Collections.singletonList(new String(chars));
+        }
+
+        final List<String> candidates = new ArrayList<>();
+        final char original = chars[8];
+
+        chars[8] = sum == 10 ? 'X' : (char) ('0' + sum);
+        candidates.add(new String(chars));
+        chars[8] = original;
+
+        if (check >= 0) {
+            for (int position = 0; position < 17; position++) {
+                if (position != 8) {
+                    addSubstitutions(chars, position, (check - sum + 11) % 11, candidates);
+                }
+            }
+        }
+
+        return filterKnown(candidates);
+    }
+
+    /**
+     * Add candidates with substituted char at the position, changing checksum by the difference
+     *
+     * @param chars      normalized VIN
+     * @param position   position of substituted char
+     * @param difference required change of checksum modulo 11
+     * @param candidates list of candidates to add to
+     */
+    private static void addSubstitutions(final char[] chars,
+                                         final int position,
+                                         final int difference,
+                                         final List<String> candidates) {
+        final char original = chars[position];
+        final int value = (VinValidatorUtils.getCharValue(original) + difference * WEIGHT_INVERSE[WEIGHT[position]]) % 11;
+
+        if (value == 10) {
+            return;
+        }
+
+        for (final char substitute : CHARS_BY_VALUE[value]) {
+            chars[position] = substitute;
+            candidates.add(new String(chars));
+        }
+
+        chars[position] = original;
+    }
+
+    private static List<String> filterKnown(final List<String> candidates) {
+        final List<String> known = new ArrayList<>();
+
+        for (final String candidate : candidates) {
+            if (VinPrefixUtils.isKnownVin(candidate)) {
+                known.add(candidate);
+            }
+        }
+
+        return known.isEmpty() ? candidates : known;
+    }
+
+    /**
+     * Normalize VIN into chars of VIN alphabet, replacing illegal letters by similar digits
+     *
+     * @param vin VIN to normalize
+     * @return 17 chars of VIN alphabet, {@code null} if normalized VIN has wrong length
+     */
+    private static char[] normalize(final CharSequence vin) {
+        if (vin == null) {
+            return null;
+        }
+
+        final char[] chars = new char[17];
+        int length = 0;
+
+        for (int i = 0; i < vin.length(); i++) {
+            char key = vin.charAt(i);
+
+            if (key >= 128 || key == 'i') {
+                // normalization of the char depends on locale or is not a plain case folding
+                return normalize(VinValidatorUtils.normalizeVin(vin));
+            }
+
+            if (key >= 'a' && key <= 'z') {
+                key -= 'a' - 'A';
+            } else if ((key < 'A' || key > 'Z') && (key < '0' || key > '9')) {
+                continue;
+            }
+
+            if (length == 17) {
+                return null;
+            }
+
+            chars[length++] = key == 'I' ? '1' : key == 'O' || key == 'Q' ? '0' : key;
+        }
+
+        return length == 17 ? chars : null;
+    }
+}
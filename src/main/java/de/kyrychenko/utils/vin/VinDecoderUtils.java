@@ -0,0 +1,169 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+/**
+ * Utility class providing help methods to decode fields of vehicle identification number (VIN):
+ * model year (position 10), plant code (position 11) and serial number (positions 12-17).
+ * Positions are counted from 1 here, as in the VIN standard.
+ * <p>
+ * Fields are decoded without allocation from the packed form of VIN (see {@link VinCodec}),
+ * either packed by the caller or packed on the fly from a {@link CharSequence}.
+ * Model year code repeats every 30 years, so the year is disambiguated by position 7, as in North America:
+ * a digit at position 7 means years 1980-2009, a letter means years 2010-2039.
+ */
+public final class VinDecoderUtils {
+    /**
+     * Base 33 digits of packed VIN (see {@link VinCodec}) are positions of chars in this alphabet
+     */
+    private static final String DIGITS = VinGeneratorUtils.ALLOWED_CHARS;
+
+    /**
+     * Index of year code in the 30-year cycle by base 33 digit, {@code -1} for digits which are not a year code
+     */
+    private static final int[] YEAR_OFFSET = new int[33];
+
+    /**
+     * Powers of 33 by position of char in packed chars 0-11
+     */
+    private static final long[] HIGH_POWER = new long[12];
+
+    static {
+        for (int digit = 0; digit < YEAR_OFFSET.length; digit++) {
+            YEAR_OFFSET[digit] = VinPrefixTable.YEAR_CODES.indexOf(DIGITS.charAt(digit));
+        }
+
+        HIGH_POWER[11] = 1;
+
+        for (int position = 10; position >= 0; position--) {
+            HIGH_POWER[position] = HIGH_POWER[position + 1] * 33;
+        }
+    }
+
+    private VinDecoderUtils() {
+        throw new RuntimeException("Utility class should not be initialized");
+    }
+
+    /**
+     * Decode model year of VIN
+     *
+     * @param vin VIN to decode, normalized in the same way as by {@link VinValidatorUtils}
+     * @return model year in range 1980-2039, {@code -1} if VIN has wrong length, illegal chars or no year code
+     */
+    public static int getModelYear(final CharSequence vin) {
+        final long[] packed = VinCodec.tryPack(vin);
+
+        return packed != null ? getModelYear(packed[0]) : -1;
+    }
+
+    /**
+     * Decode model year of packed VIN
+     *
+     * @param high packed chars 0-11 of VIN, see {@link VinCodec#packHigh(CharSequence)}
+     * @return model year in range 1980-2039, {@code -1} if there is no year code at position 10
+     */
+    public static int getModelYear(final long high) {
+        final int offset = YEAR_OFFSET[digit(high, 9)];
+
+        if (offset < 0) {
+            return -1;
+        }
+
+        // digits 0-9 are encoded as base 33 digits 0-9, letters follow them
+        return digit(high, 6) < 10 ? 1980 + offset : 2010 + offset;
+    }
+
+    /**
+     * Get plant code of VIN
+     *
+     * @param vin VIN to decode, normalized in the same way as by {@link VinValidatorUtils}
+     * @return upper-case char at position 11, {@code 0} if VIN has wrong length or illegal chars
+     */
+    public static char getPlantCode(final CharSequence vin) {
+        final long[] packed = VinCodec.tryPack(vin);
+
+        return packed != null ? getPlantCode(packed[0]) : 0;
+    }
+
+    /**
+     * Get plant code of packed VIN
+     *
+     * @param high packed chars 0-11 of VIN, see {@link VinCodec#packHigh(CharSequence)}
+     * @return char at position 11
+     */
+    public static char getPlantCode(final long high) {
+        return DIGITS.charAt(digit(high, 10));
+    }
+
+    /**
+     * Decode serial number of VIN
+     *
+     * @param vin VIN to decode, normalized in the same way as by {@link VinValidatorUtils}
+     * @return number at positions 12-17, {@code -1} if VIN has wrong length, illegal chars or letters at positions 12-17
+     */
+    public static int getSerialNumber(final CharSequence vin) {
+        final long[] packed = VinCodec.tryPack(vin);
+
+        return packed != null ? getSerialNumber(packed[0], (int) packed[1]) : -1;
+    }
+
+    /**
+     * Decode serial number of packed VIN
+     *
+     * @param high packed chars 0-11 of VIN, see {@link VinCodec#packHigh(CharSequence)}
+     * @param low  packed chars 12-16 of VIN, see {@link VinCodec#packLow(CharSequence)}
+     * @return number at positions 12-17, {@code -1} if there are letters at positions 12-17
+     */
+    public static int getSerialNumber(final long high,
+                                      final int low) {
+        int serial = digit(high, 11);
+
+        if (serial >= 10) {
+            return -1;
+        }
+
+        for (int divisor = 33 * 33 * 33 * 33; divisor > 0; divisor /= 33) {
+            final int digit = low / divisor % 33;
+
+            if (digit >= 10) {
+                return -1;
+            }
+
+            serial = serial * 10 + digit;
+        }
+
+        return serial;
+    }
+
+    /**
+     * @param high     packed chars 0-11 of VIN
+     * @param position position of char in VIN, 0-11
+     * @return base 33 digit of the char
+     */
+    private static int digit(final long high,
+                             final int position) {
+        return (int) (high / HIGH_POWER[position] % 33);
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-pass aggregation of statistics over files with VIN's: validity rate,
+ * distribution of WMI's and histogram of model years of valid VIN's.
+ * Files are newline-delimited with one VIN per line or have records of fixed width with VIN at fixed offset.
+ * <p>
+ * As in {@link VinFileValidator}, the file is memory-mapped in chunks, which are processed in parallel.
+ * Every worker (one per thread of the pool) takes the next chunk while there are any left
+ * and counts lines in its own primitive counters, which are summed up into the report.
+ * VIN's are validated with {@link VinValidatorUtils#getVinValidationResult(ByteBuffer, int, int)}
+ * and WMI and model year are decoded from packed chars 0-11, without creating an object per line.
+ */
+public final class VinFileAnalyzer {
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+    private static final int STATUS_COUNT = VinValidationStatus.values().length;
+    private static final int VIN_LENGTH = 17;
+
+    /**
+     * Number of possible WMI's: 33^3
+     */
+    private static final int WMI_COUNT = 35937;
+
+    /**
+     * Divisor of packed chars 0-11, which leaves chars 0-2 (WMI): 33^9
+     */
+    private static final long WMI_DIVISOR = 46411484401953L;
+
+    private static final int FIRST_YEAR = 1980;
+    private static final int YEAR_COUNT = 60;
+
+    private final int recordLength;
+    private final int vinOffset;
+    private final int chunkSize;
+
+    /**
+     * Create analyzer of newline-delimited files with one VIN per line
+     */
+    public VinFileAnalyzer() {
+        this(0, 0, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create analyzer of files with records of fixed width, including line feed if records are delimited with it
+     *
+     * @param recordLength number of bytes in a record
+     * @param vinOffset    offset of VIN (17 bytes) in a record
+     */
+    public VinFileAnalyzer(final int recordLength,
+                           final int vinOffset) {
+        this(recordLength, vinOffset, DEFAULT_CHUNK_SIZE);
+
+        if (recordLength < 1 || vinOffset < 0 || vinOffset > recordLength - VIN_LENGTH) {
+            throw new IllegalArgumentException("Record of " + recordLength + " bytes should have VIN at offset " + vinOffset);
+        }
+    }
+
+    VinFileAnalyzer(final int recordLength,
+                    final int vinOffset,
+                    final int chunkSize) {
+        this.recordLength = recordLength;
+        this.vinOffset = vinOffset;
+        // chunks of fixed-width files consist of whole records
+        this.chunkSize = recordLength > 0 ? Math.max(1, chunkSize / recordLength) * recordLength : chunkSize;
+    }
+
+    /**
+     * Analyze file in the common {@link ForkJoinPool}
+     *
+     * @param file file to analyze
+     * @return report with statistics of the file
+     * @throws IOException if file could not be read
+     */
+    public Report analyze(final Path file) throws IOException {
+        return analyze(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Analyze file
+     *
+     * @param file file to analyze
+     * @param pool pool to run workers in, one per thread of the pool
+     * @return report with statistics of the file
+     * @throws IOException if file could not be read
+     */
+    public Report analyze(final Path file,
+                          final ForkJoinPool pool) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long[] bounds = getChunkBounds(channel);
+            final AtomicInteger nextChunk = new AtomicInteger();
+            final int workerCount = Math.min(pool.getParallelism(), bounds.length - 1);
+            final List<Callable<Counters>> workers = new ArrayList<>();
+
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(() -> {
+                    final Counters counters = new Counters();
+
+                    for (int chunk = nextChunk.getAndIncrement(); chunk < bounds.length - 1; chunk = nextChunk.getAndIncrement()) {
+                        analyzeChunk(channel, bounds[chunk], bounds[chunk + 1], counters);
+                    }
+
+                    return counters;
+                });
+            }
+
+            final Counters total = new Counters();
+
+            for (final Future<Counters> future : pool.invokeAll(workers)) {
+                total.add(future.get());
+            }
+
+            return new Report(total);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new IOException("Analysis of " + file + " was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException("Problem occurred while analyzing " + file, e.getCause());
+        }
+    }
+
+    private long[] getChunkBounds(final FileChannel channel) throws IOException {
+        if (this.recordLength == 0) {
+            return VinFileValidator.getChunkBounds(channel, this.chunkSize);
+        }
+
+        final long size = channel.size();
+        final long[] bounds = new long[(int) ((size + this.chunkSize - 1) / this.chunkSize) + 1];
+
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = Math.min(size, (long) i * this.chunkSize);
+        }
+
+        return bounds;
+    }
+
+    private void analyzeChunk(final FileChannel channel,
+                              final long start,
+                              final long end,
+                              final Counters counters) throws IOException {
+        if (start == end) {
+            return;
+        }
+
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        final int limit = buffer.limit();
+
+        if (this.recordLength > 0) {
+            for (int record = 0; record < limit; record += this.recordLength) {
+                final int vinStart = Math.min(record + this.vinOffset, limit);
+
+                analyzeVin(buffer, vinStart, Math.min(vinStart + VIN_LENGTH, limit), counters);
+            }
+        } else {
+            int lineStart = 0;
+
+            while (lineStart < limit) {
+                final int lineEnd = VinFileValidator.lineEnd(buffer, lineStart, limit);
+
+                analyzeVin(buffer, lineStart, lineEnd, counters);
+                lineStart = lineEnd + 1;
+            }
+        }
+    }
+
+    private static void analyzeVin(final ByteBuffer buffer,
+                                   final int from,
+                                   final int to,
+                                   final Counters counters) {
+        if (VinFileValidator.isBlank(buffer, from, to)) {
+            return;
+        }
+
+        final int result = VinValidatorUtils.getVinValidationResult(buffer, from, to - from);
+        final VinValidationStatus status = VinValidationStatus.of(result);
+
+        counters.statuses[status.ordinal()]++;
+
+        if (status == VinValidationStatus.VALID) {
+            final long high = VinCodec.tryPackHigh(buffer, from, to - from);
+            final int year = VinDecoderUtils.getModelYear(high);
+
+            counters.wmis[(int) (high / WMI_DIVISOR)]++;
+            counters.years[year < 0 ? YEAR_COUNT : year - FIRST_YEAR]++;
+        }
+    }
+
+    /**
+     * Statistics of VIN's in a file
+     */
+    public static final class Report {
+        private final Counters counters;
+
+        private Report(final Counters counters) {
+            this.counters = counters;
+        }
+
+        /**
+         * @return number of analyzed (not empty) lines or records
+         */
+        public long getLineCount() {
+            long count = 0;
+
+            for (final long statusCount : this.counters.statuses) {
+                count += statusCount;
+            }
+
+            return count;
+        }
+
+        /**
+         * @param status validation status
+         * @return number of lines with the status
+         */
+        public long getCount(final VinValidationStatus status) {
+            return this.counters.statuses[status.ordinal()];
+        }
+
+        /**
+         * @return share of valid VIN's among analyzed lines, {@code 0} if there are no lines
+         */
+        public double getValidityRate() {
+            final long lines = getLineCount();
+
+            return lines == 0 ? 0 : (double) getCount(VinValidationStatus.VALID) / lines;
+        }
+
+        /**
+         * @param wmi world manufacturer identifier, the first 3 chars of VIN
+         * @return number of valid VIN's with the WMI
+         */
+        public long getWmiCount(final CharSequence wmi) {
+            if (wmi == null || wmi.length() != 3) {
+                return 0;
+            }
+
+            int index = 0;
+
+            for (int i = 0; i < 3; i++) {
+                final int digit = VinGeneratorUtils.ALLOWED_CHARS.indexOf(Character.toUpperCase(wmi.charAt(i)));
+
+                if (digit < 0) {
+                    return 0;
+                }
+
+                index = index * 33 + digit;
+            }
+
+            return this.counters.wmis[index];
+        }
+
+        /**
+         * @return WMI's of valid VIN's, in descending order of number of VIN's
+         */
+        public List<String> getWmis() {
+            final long[] entries = new long[WMI_COUNT];
+            int size = 0;
+
+            for (int index = 0; index < WMI_COUNT; index++) {
+                if (this.counters.wmis[index] > 0) {
+                    // count in upper bits, WMI in lower 16 bits, so sorting orders by count and then by WMI
+                    entries[size++] = this.counters.wmis[index] << 16 | index;
+                }
+            }
+
+            Arrays.sort(entries, 0, size);
+
+            final List<String> wmis = new ArrayList<>(size);
+
+            for (int i = size - 1; i >= 0; i--) {
+                final int index = (int) (entries[i] & 0xFFFF);
+
+                wmis.add(new String(new char[]{
+                        VinGeneratorUtils.ALLOWED_CHARS.charAt(index / (33 * 33)),
+                        VinGeneratorUtils.ALLOWED_CHARS.charAt(index / 33 % 33),
+                        VinGeneratorUtils.ALLOWED_CHARS.charAt(index % 33)
+                }));
+            }
+
+            return wmis;
+        }
+
+        /**
+         * @param year model year in range 1980-2039, or {@code -1} for VIN's without year code
+         * @return number of valid VIN's with the model year, as decoded by {@link VinDecoderUtils#getModelYear(long)}
+         */
+        public long getModelYearCount(final int year) {
+            if (year == -1) {
+                return this.counters.years[YEAR_COUNT];
+            }
+
+            return year < FIRST_YEAR || year >= FIRST_YEAR + YEAR_COUNT ? 0 : this.counters.years[year - FIRST_YEAR];
+        }
+    }
+
+    /**
+     * Counters of a worker: lines by validation status, valid VIN's by WMI and by model year
+     * (the last one is for VIN's without year code)
+     */
+    private static final class Counters {
+        private final long[] statuses = new long[STATUS_COUNT];
+        private final long[] wmis = new long[WMI_COUNT];
+        private final long[] years = new long[YEAR_COUNT + 1];
+
+        void add(final Counters other) {
+            for (int i = 0; i < STATUS_COUNT; i++) {
+                this.statuses[i] += other.statuses[i];
+            }
+
+            for (int i = 0; i < WMI_COUNT; i++) {
+                this.wmis[i] += other.wmis[i];
+            }
+
+            for (int i = 0; i <= YEAR_COUNT; i++) {
+                this.years[i] += other.years[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,538 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Validator of files with VIN's: newline-delimited files with one VIN per line
+ * or CSV files with VIN in one of columns.
+ * <p>
+ * The file is memory-mapped in chunks, which are validated in parallel,
+ * so files of any size are validated without loading them into heap.
+ * Every VIN is validated with {@link VinValidatorUtils#getVinValidationResult(ByteBuffer, int, int)},
+ * empty lines are skipped. Quoted CSV fields may not contain the delimiter.
+ * <p>
+ * Invalid lines are passed to {@link InvalidLineHandler} in order of the file as soon as their chunk
+ * and all preceding ones are validated, so they are processed without keeping them in memory.
+ * At most two chunks per thread of the pool are validated ahead of the handler.
+ * <p>
+ * Could be run from command line:
+ * <pre>
+ * java -cp vin-utils.jar de.kyrychenko.utils.vin.VinFileValidator [--delimiter=,] [--column=0] [--header] [--summary] file
+ * </pre>
+ */
+public final class VinFileValidator {
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+    private static final int STATUS_COUNT = VinValidationStatus.values().length;
+
+    private final byte delimiter;
+    private final int column;
+    private final boolean header;
+    private final boolean collectInvalidLines;
+    private final int chunkSize;
+
+    /**
+     * Create validator of newline-delimited files with one VIN per line
+     */
+    public VinFileValidator() {
+        this(',', 0, false, true);
+    }
+
+    /**
+     * Create validator of CSV files
+     *
+     * @param delimiter           delimiter of columns
+     * @param column              index of column with VIN, starting with 0
+     * @param header              whether the first line of file is a header, which should be skipped
+     * @param collectInvalidLines whether offsets of invalid lines should be collected in the report
+     */
+    public VinFileValidator(final char delimiter,
+                            final int column,
+                            final boolean header,
+                            final boolean collectInvalidLines) {
+        this(delimiter < 128 ? (byte) delimiter : -1, column, header, collectInvalidLines, DEFAULT_CHUNK_SIZE);
+    }
+
+    VinFileValidator(final byte delimiter,
+                     final int column,
+                     final boolean header,
+                     final boolean collectInvalidLines,
+                     final int chunkSize) {
+        if (delimiter == '\n' || delimiter < 0) {
+            throw new IllegalArgumentException("Delimiter should be an ASCII char other than line feed");
+        }
+
+        if (column < 0) {
+            throw new IllegalArgumentException("Column should not be negative");
+        }
+
+        this.delimiter = delimiter;
+        this.column = column;
+        this.header = header;
+        this.collectInvalidLines = collectInvalidLines;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Validate file in the common {@link ForkJoinPool}
+     *
+     * @param file file to validate
+     * @return validation report
+     * @throws IOException if file could not be read
+     */
+    public Report validate(final Path file) throws IOException {
+        return validate(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Validate file
+     *
+     * @param file file to validate
+     * @param pool pool to validate chunks of file in
+     * @return validation report
+     * @throws IOException if file could not be read
+     */
+    public Report validate(final Path file,
+                           final ForkJoinPool pool) throws IOException {
+        return validate(file, pool, null);
+    }
+
+    /**
+     * Validate file, passing invalid lines to the handler in order of the file
+     *
+     * @param file    file to validate
+     * @param pool    pool to validate chunks of file in
+     * @param handler handler of invalid lines, called from the calling thread, {@code null} if they are not handled
+     * @return validation report
+     * @throws IOException if file could not be read
+     */
+    public Report validate(final Path file,
+                           final ForkJoinPool pool,
+                           final InvalidLineHandler handler) throws IOException {
+        final boolean collect = this.collectInvalidLines || handler != null;
+        final Deque<Future<Chunk>> futures = new ArrayDeque<>();
+
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long[] bounds = getChunkBounds(channel, this.chunkSize);
+            final int chunkCount = bounds.length - 1;
+            final int window = 2 * pool.getParallelism();
+            final Report report = new Report();
+            int submitted = 0;
+
+            for (int i = 0; i < chunkCount; i++) {
+                for (; submitted < chunkCount && submitted < i + window; submitted++) {
+                    final long start = bounds[submitted];
+                    final long end = bounds[submitted + 1];
+                    final boolean skipFirstLine = this.header && submitted == 0;
+
+                    futures.add(pool.submit(() -> validateChunk(channel, start, end, skipFirstLine, collect)));
+                }
+
+                final Chunk chunk = futures.remove().get();
+                report.add(chunk, this.collectInvalidLines);
+
+                if (handler != null) {
+                    for (int line = 0; line < chunk.invalidLines; line++) {
+                        handler.onInvalidLine(chunk.offsets[line], chunk.results[line]);
+                    }
+                }
+            }
+
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new IOException("Validation of " + file + " was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException("Problem occurred while validating " + file, e.getCause());
+        } finally {
+            for (final Future<Chunk> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Split file into chunks of about {@code chunkSize} bytes, ending with line feed
+     *
+     * @param channel   channel of the file
+     * @param chunkSize minimal size of a chunk
+     * @return offsets of chunk starts, followed by size of file
+     * @throws IOException if file could not be read
+     */
+    static long[] getChunkBounds(final FileChannel channel,
+                                 final int chunkSize) throws IOException {
+        final long size = channel.size();
+        final ByteBuffer buffer = ByteBuffer.allocate(8192);
+        final List<Long> bounds = new ArrayList<>();
+
+        bounds.add(0L);
+
+        long position = chunkSize;
+
+        while (position < size) {
+            long bound = size;
+
+            // move the bound after the next line feed
+            search:
+            while (position < size) {
+                buffer.clear();
+
+                final int read = channel.read(buffer, position);
+
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        bound = position + i + 1;
+                        break search;
+                    }
+                }
+
+                position += read;
+            }
+
+            if (bound < size) {
+                bounds.add(bound);
+            }
+
+            position = bound + chunkSize;
+        }
+
+        bounds.add(size);
+
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private Chunk validateChunk(final FileChannel channel,
+                                final long start,
+                                final long end,
+                                final boolean skipFirstLine,
+                                final boolean collect) throws IOException {
+        final Chunk chunk = new Chunk(collect);
+
+        if (start == end) {
+            return chunk;
+        }
+
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        final int limit = buffer.limit();
+        int lineStart = 0;
+
+        if (skipFirstLine) {
+            lineStart = nextLine(buffer, 0, limit);
+        }
+
+        while (lineStart < limit) {
+            final int lineEnd = lineEnd(buffer, lineStart, limit);
+            final int next = lineEnd < limit ? lineEnd + 1 : limit;
+
+            if (!isBlank(buffer, lineStart, lineEnd)) {
+                int fieldStart = lineStart;
+
+                for (int i = 0; i < this.column && fieldStart <= lineEnd; i++) {
+                    fieldStart = fieldEnd(buffer, fieldStart, lineEnd) + 1;
+                }
+
+                final int result;
+                if (fieldStart > lineEnd) {
+                    result = VinValidatorUtils.getVinValidationResult(buffer, lineEnd, 0);
+                } else {
+                    result = VinValidatorUtils.getVinValidationResult(buffer, fieldStart, fieldEnd(buffer, fieldStart, lineEnd) - fieldStart);
+                }
+
+                chunk.add(start + lineStart, result);
+            }
+
+            lineStart = next;
+        }
+
+        return chunk;
+    }
+
+    private static int nextLine(final ByteBuffer buffer,
+                                final int from,
+                                final int limit) {
+        final int lineEnd = lineEnd(buffer, from, limit);
+
+        return lineEnd < limit ? lineEnd + 1 : limit;
+    }
+
+    static int lineEnd(final ByteBuffer buffer,
+                       final int from,
+                       final int limit) {
+        int i = from;
+
+        while (i < limit && buffer.get(i) != '\n') {
+            i++;
+        }
+
+        return i;
+    }
+
+    private int fieldEnd(final ByteBuffer buffer,
+                         final int from,
+                         final int lineEnd) {
+        int i = from;
+
+        while (i < lineEnd && buffer.get(i) != this.delimiter) {
+            i++;
+        }
+
+        return i;
+    }
+
+    static boolean isBlank(final ByteBuffer buffer,
+                           final int from,
+                           final int to) {
+        for (int i = from; i < to; i++) {
+            final byte b = buffer.get(i);
+
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Run validation of the file from command line, printing offsets of invalid lines and summary
+     *
+     * @param args command line arguments
+     * @throws IOException if file could not be read
+     */
+    public static void main(final String[] args) throws IOException {
+        final int status = run(args, System.out, System.err);
+
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Run validation of the file with command line arguments
+     *
+     * @param args command line arguments
+     * @param out  stream for offsets of invalid lines and summary
+     * @param err  stream for usage
+     * @return exit status: {@code 0} on success, {@code 2} on wrong arguments
+     * @throws IOException if file could not be read
+     */
+    static int run(final String[] args,
+                   final PrintStream out,
+                   final PrintStream err) throws IOException {
+        char delimiter = ',';
+        int column = 0;
+        boolean header = false;
+        boolean summary = false;
+        String file = null;
+
+        for (final String arg : args) {
+            if (arg.startsWith("--delimiter=") && arg.length() == "--delimiter=".length() + 1
+                    && arg.charAt(arg.length() - 1) < 128 && arg.charAt(arg.length() - 1) != '\n') {
+                delimiter = arg.charAt(arg.length() - 1);
+            } else if (arg.startsWith("--column=") && parseColumn(arg.substring("--column=".length())) >= 0) {
+                column = parseColumn(arg.substring("--column=".length()));
+            } else if (arg.equals("--header")) {
+                header = true;
+            } else if (arg.equals("--summary")) {
+                summary = true;
+            } else if (!arg.startsWith("--") && file == null) {
+                file = arg;
+            } else {
+                file = null;
+                break;
+            }
+        }
+
+        if (file == null) {
+            err.println("Usage: java -cp vin-utils.jar " + VinFileValidator.class.getName()
+                    + " [--delimiter=,] [--column=0] [--header] [--summary] file");
+            return 2;
+        }
+
+        // invalid lines are printed as soon as their chunk is validated instead of being collected
+        final Report report = new VinFileValidator(delimiter, column, header, false).validate(Paths.get(file),
+                ForkJoinPool.commonPool(), summary ? null : (offset, result) -> out.println(offset + "\t" + VinValidationStatus.of(result)));
+
+        out.println("lines: " + report.getLineCount());
+
+        for (final VinValidationStatus status : VinValidationStatus.values()) {
+            if (status != VinValidationStatus.NULL_VIN) {
+                out.println(status.name().toLowerCase(Locale.ROOT) + ": " + report.getCount(status));
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * @return index of column, {@code -1} if it is not a number
+     */
+    private static int parseColumn(final String column) {
+        try {
+            return Integer.parseInt(column);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Handler of invalid lines, see {@link #validate(Path, ForkJoinPool, InvalidLineHandler)}
+     */
+    @FunctionalInterface
+    public interface InvalidLineHandler {
+        /**
+         * Handle invalid line
+         *
+         * @param offset byte offset of the line in the file
+         * @param result result of {@link VinValidatorUtils#getVinValidationResult(ByteBuffer, int, int)} for the line
+         */
+        void onInvalidLine(long offset, int result);
+    }
+
+    /**
+     * Result of file validation
+     */
+    public static final class Report {
+        private final long[] counts = new long[STATUS_COUNT];
+        private long[] invalidLineOffsets = new long[0];
+        private int[] invalidLineResults = new int[0];
+        private int invalidLines;
+
+        private Report() {
+        }
+
+        private void add(final Chunk chunk,
+                         final boolean collect) {
+            for (int i = 0; i < STATUS_COUNT; i++) {
+                this.counts[i] += chunk.counts[i];
+            }
+
+            if (collect && chunk.invalidLines > 0) {
+                final int size = this.invalidLines + chunk.invalidLines;
+
+                if (size > this.invalidLineOffsets.length) {
+                    final int capacity = Math.max(size, this.invalidLineOffsets.length * 2);
+                    this.invalidLineOffsets = Arrays.copyOf(this.invalidLineOffsets, capacity);
+                    this.invalidLineResults = Arrays.copyOf(this.invalidLineResults, capacity);
+                }
+
+                System.arraycopy(chunk.offsets, 0, this.invalidLineOffsets, this.invalidLines, chunk.invalidLines);
+                System.arraycopy(chunk.results, 0, this.invalidLineResults, this.invalidLines, chunk.invalidLines);
+                this.invalidLines = size;
+            }
+        }
+
+        /**
+         * @return number of validated (not empty) lines
+         */
+        public long getLineCount() {
+            long count = 0;
+
+            for (final long statusCount : this.counts) {
+                count += statusCount;
+            }
+
+            return count;
+        }
+
+        /**
+         * @param status validation status
+         * @return number of lines with the status
+         */
+        public long getCount(final VinValidationStatus status) {
+            return this.counts[status.ordinal()];
+        }
+
+        /**
+         * @return ascending byte offsets of invalid lines in the file, empty if offsets were not collected
+         */
+        public long[] getInvalidLineOffsets() {
+            return Arrays.copyOf(this.invalidLineOffsets, this.invalidLines);
+        }
+
+        /**
+         * @return results of {@link VinValidatorUtils#getVinValidationResult(ByteBuffer, int, int)}
+         * for lines of {@link #getInvalidLineOffsets()}
+         */
+        public int[] getInvalidLineResults() {
+            return Arrays.copyOf(this.invalidLineResults, this.invalidLines);
+        }
+    }
+
+    /**
+     * Result of chunk validation
+     */
+    private static final class Chunk {
+        private final long[] counts = new long[STATUS_COUNT];
+        private final boolean collect;
+        private long[] offsets = new long[16];
+        private int[] results = new int[16];
+        private int invalidLines;
+
+        Chunk(final boolean collect) {
+            this.collect = collect;
+        }
+
+        void add(final long offset,
+                 final int result) {
+            final VinValidationStatus status = VinValidationStatus.of(result);
+
+            this.counts[status.ordinal()]++;
+
+            if (this.collect && status != VinValidationStatus.VALID) {
+                if (this.invalidLines == this.offsets.length) {
+                    this.offsets = Arrays.copyOf(this.offsets, this.invalidLines * 2);
+                    this.results = Arrays.copyOf(this.results, this.invalidLines * 2);
+                }
+
+                this.offsets[this.invalidLines] = offset;
+                this.results[this.invalidLines] = result;
+                this.invalidLines++;
+            }
+        }
+    }
+}
@@ -25,113 +25,418 @@
 package de.kyrychenko.utils.vin;
 
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility class providing help methods to generate vehicle identification number (VIN)
  */
 public final class VinGeneratorUtils {
-    private static final Random RANDOM = new Random();
-    private static final String PREFIXES_FILE_NAME = "vin-prefixes.txt";
-    private static final String ALLOWED_CHARS = "0123456789ABCDEFGHJKLMNPRSTUVWXYZ";
+    static final String ALLOWED_CHARS = "0123456789ABCDEFGHJKLMNPRSTUVWXYZ";
+
+    /**
+     * Number of combinations of chars at positions 10-16 of VIN: 33^7
+     */
+    static final long SERIAL_COUNT = 42618442977L;
 
     private VinGeneratorUtils() {
         throw new RuntimeException("Utility class should not be initialized");
     }
 
     /**
-     * Generate random VIN
+     * Generate random VIN, using {@link ThreadLocalRandom},
+     * so generation from many threads does not contend on a shared random source
      *
      * @return randomly generated VIN
      */
     public static String getRandomVin() {
-        final Vin vinYear = getRandomVinStart();
-        final StringBuilder vinBuilder = new StringBuilder();
+        return getRandomVin(ThreadLocalRandom.current());
+    }
 
-        vinBuilder.append(vinYear.getWmi());
-        vinBuilder.append(vinYear.getVds());
-        vinBuilder.append(getRandomVinChar());
-        vinBuilder.append(vinYear.getYear());
+    /**
+     * Generate random VIN, using provided source of randomness.
+     * The same sequence of VIN's is generated for {@link Random}'s with the same seed.
+     *
+     * @param random source of randomness, should not be shared between threads to avoid contention
+     * @return randomly generated VIN
+     */
+    public static String getRandomVin(final Random random) {
+        return new String(fillRandomVin(null, random, new char[17]));
+    }
 
-        for (int i = 0; i < 7; i++) {
-            vinBuilder.append(getRandomVinChar());
+    /**
+     * Generate random VIN with WMI, VDS and model year of the filter, using {@link ThreadLocalRandom}
+     *
+     * @param filter filter of prefix data
+     * @return randomly generated VIN
+     */
+    public static String getRandomVin(final VinPrefixFilter filter) {
+        return getRandomVin(filter, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Generate random VIN with WMI, VDS and model year of the filter, using provided source of randomness
+     *
+     * @param filter filter of prefix data
+     * @param random source of randomness
+     * @return randomly generated VIN
+     */
+    public static String getRandomVin(final VinPrefixFilter filter,
+                                      final Random random) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter should not be null");
         }
 
-        final String vin = vinBuilder.toString();
+        return new String(fillRandomVin(filter, random, new char[17]));
+    }
 
-        try {
-            final char checkSumChar = VinValidatorUtils.getVinCheckSumChar(vin);
+    /**
+     * Generate stream of random VIN's, using {@link ThreadLocalRandom}.
+     * The stream could be processed in parallel.
+     *
+     * @param count number of VIN's to generate
+     * @return stream of randomly generated VIN's
+     */
+    public static Stream<String> getRandomVins(final long count) {
+        return StreamSupport.stream(new RandomVinSpliterator(null, null, 0, checkCount(count)), false);
+    }
 
-            return vin.substring(0, 8) + Character.toString(checkSumChar) + vin.substring(9);
-        } catch (InvalidVinException ignored) {
-            // should never happen, because here we calculate checksum for VIN generated by us
-            // but checksum calculation could throw exception for validation of foreign VIN
-            return null;
+    /**
+     * Generate stream of random VIN's, using provided source of randomness.
+     * The same sequence of VIN's is generated for {@link Random}'s with the same seed,
+     * so the stream is not split for parallel processing.
+     *
+     * @param count  number of VIN's to generate
+     * @param random source of randomness
+     * @return stream of randomly generated VIN's
+     */
+    public static Stream<String> getRandomVins(final long count,
+                                               final Random random) {
+        return StreamSupport.stream(new RandomVinSpliterator(null, random, 0, checkCount(count)), false);
+    }
+
+    /**
+     * Generate stream of random VIN's with WMI, VDS and model year of the filter, using {@link ThreadLocalRandom}.
+     * The stream could be processed in parallel.
+     *
+     * @param filter filter of prefix data
+     * @param count  number of VIN's to generate
+     * @return stream of randomly generated VIN's
+     */
+    public static Stream<String> getRandomVins(final VinPrefixFilter filter,
+                                               final long count) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter should not be null");
+        }
+
+        return StreamSupport.stream(new RandomVinSpliterator(filter, null, 0, checkCount(count)), false);
+    }
+
+    /**
+     * Generate stream of random VIN's without duplicates, using {@link ThreadLocalRandom}.
+     * VIN's are taken from a random permutation by {@link UniqueVinGenerator}, so memory consumption does not grow with count.
+     *
+     * @param count number of VIN's to generate
+     * @return sequential stream of unique randomly generated VIN's, which is not split for parallel processing
+     */
+    public static Stream<String> getUniqueRandomVins(final int count) {
+        return getUniqueRandomVins(count, null);
+    }
+
+    /**
+     * Generate stream of random VIN's without duplicates, using provided source of randomness
+     *
+     * @param count  number of VIN's to generate
+     * @param random source of randomness, {@code null} to use {@link ThreadLocalRandom}
+     * @return sequential stream of unique randomly generated VIN's, which is not split for parallel processing
+     */
+    public static Stream<String> getUniqueRandomVins(final int count,
+                                                     final Random random) {
+        final UniqueVinGenerator generator = new UniqueVinGenerator(random);
+
+        return StreamSupport.stream(new UniqueVinSpliterator(generator, (int) checkCount(count)), false);
+    }
+
+    /**
+     * Write random VIN as 17 US-ASCII bytes into the array
+     *
+     * @param vin    destination array
+     * @param offset index in array to write the first char of VIN at
+     */
+    public static void writeRandomVin(final byte[] vin,
+                                      final int offset) {
+        writeRandomVin(ThreadLocalRandom.current(), vin, offset);
+    }
+
+    /**
+     * Write random VIN as 17 US-ASCII bytes into the array, using provided source of randomness
+     *
+     * @param random source of randomness
+     * @param vin    destination array
+     * @param offset index in array to write the first char of VIN at
+     */
+    public static void writeRandomVin(final Random random,
+                                      final byte[] vin,
+                                      final int offset) {
+        if (offset < 0 || offset > vin.length - 17) {
+            throw new IndexOutOfBoundsException("No room for VIN at " + offset + " in array of length " + vin.length);
+        }
+
+        final char[] chars = fillRandomVin(null, random, new char[17]);
+
+        for (int i = 0; i < 17; i++) {
+            vin[offset + i] = (byte) chars[i];
+        }
+    }
+
+    /**
+     * Write random VIN as 17 US-ASCII bytes at the position of the buffer, advancing the position
+     *
+     * @param vin destination buffer
+     */
+    public static void writeRandomVin(final ByteBuffer vin) {
+        writeRandomVin(ThreadLocalRandom.current(), vin);
+    }
+
+    /**
+     * Write random VIN as 17 US-ASCII bytes at the position of the buffer, advancing the position,
+     * using provided source of randomness
+     *
+     * @param random source of randomness
+     * @param vin    destination buffer
+     */
+    public static void writeRandomVin(final Random random,
+                                      final ByteBuffer vin) {
+        if (vin.remaining() < 17) {
+            throw new BufferOverflowException();
+        }
+
+        final char[] chars = fillRandomVin(null, random, new char[17]);
+
+        for (int i = 0; i < 17; i++) {
+            vin.put((byte) chars[i]);
         }
     }
 
-    private static char getRandomVinChar() {
-        // '33' is length of ALLOWED_CHARS
-        return ALLOWED_CHARS.charAt(RANDOM.nextInt(33));
+    /**
+     * Append random VIN to the {@link Appendable}
+     *
+     * @param vin destination of VIN
+     * @throws IOException if VIN could not be appended
+     */
+    public static void appendRandomVin(final Appendable vin) throws IOException {
+        appendRandomVin(ThreadLocalRandom.current(), vin);
     }
 
-    private static Vin getRandomVinStart() {
-        // '62178' is a number of lines in the file; + 1 to avoid reading of first line
-        final int lineToRead = RANDOM.nextInt(62177) + 1;
+    /**
+     * Append random VIN to the {@link Appendable}, using provided source of randomness
+     *
+     * @param random source of randomness
+     * @param vin    destination of VIN
+     * @throws IOException if VIN could not be appended
+     */
+    public static void appendRandomVin(final Random random,
+                                       final Appendable vin) throws IOException {
+        final char[] chars = fillRandomVin(null, random, new char[17]);
+
+        if (vin instanceof StringBuilder) {
+            ((StringBuilder) vin).append(chars);
+        } else {
+            for (final char c : chars) {
+                vin.append(c);
+            }
+        }
+    }
+
+    /**
+     * Fill the array with random VIN, calculating check digit in place
+     *
+     * @param filter filter of prefix data, {@code null} to use all rows of prefix data
+     * @param random source of randomness
+     * @param vin    array of 17 chars
+     * @return the array
+     */
+    private static char[] fillRandomVin(final VinPrefixFilter filter,
+                                        final Random random,
+                                        final char[] vin) {
+        final int row = filter != null
+                ? filter.getRandomRow(random)
+                : random.nextInt(VinPrefixTable.getInstance().size());
+
+        return fillVin(row, getRandomSerial(random), vin);
+    }
 
-        try (final Stream<String> stream = Files.lines(Paths.get(ClassLoader.getSystemResource(PREFIXES_FILE_NAME).toURI()))) {
-            final String line = stream.skip(lineToRead)
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("Problem occurred while read line " + lineToRead + " from " + PREFIXES_FILE_NAME));
-            final String[] fields = line.split(" {3}");
+    /**
+     * Draw random chars of positions 10-16 of VIN
+     *
+     * @param random source of randomness
+     * @return the chars as a number of base 33 in range [0, {@code SERIAL_COUNT})
+     */
+    static long getRandomSerial(final Random random) {
+        long serial = 0;
 
-            return new Vin(fields[0].trim(), fields[1].trim(), fields[2].trim());
-        } catch (URISyntaxException | IOException | SecurityException e) {
-            throw new RuntimeException("Problem occurred while reading " + PREFIXES_FILE_NAME, e);
+        for (int i = 10; i < 17; i++) {
+            // '33' is length of ALLOWED_CHARS
+            serial = serial * 33 + random.nextInt(33);
         }
+
+        return serial;
     }
 
     /**
-     * Helper class used internally to save parts of VIN
+     * Fill the array with VIN, built from a row of prefix table and chars of positions 10-16,
+     * calculating check digit in place
+     *
+     * @param row    index of row in the prefix table
+     * @param serial chars of positions 10-16 as a number of base 33
+     * @param vin    array of 17 chars
+     * @return the array
      */
-    private static class Vin {
-        /**
-         * WMI - (World Manufacturers Identification)
-         */
-        private final String wmi;
+    static char[] fillVin(final int row,
+                          final long serial,
+                          final char[] vin) {
+        VinPrefixTable.getInstance().copyTo(row, vin, 0);
 
-        /**
-         * VDS (Vehicle Description Section)
-         */
-        private final String vds;
+        long rest = serial;
 
-        /**
-         * Year of model
-         */
-        private final String year;
+        for (int i = 16; i >= 10; i--) {
+            vin[i] = ALLOWED_CHARS.charAt((int) (rest % 33));
+            rest /= 33;
+        }
+
+        vin[8] = VinValidatorUtils.getCheckDigit(vin, 0);
+
+        return vin;
+    }
 
-        Vin(final String wmi,
-            final String vds,
-            final String year) {
-            this.wmi = wmi;
-            this.vds = vds;
-            this.year = year;
+    private static long checkCount(final long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Number of VIN's should not be negative");
         }
 
-        String getWmi() {
-            return this.wmi;
+        return count;
+    }
+
+    /**
+     * Spliterator generating random VIN's with indexes in range [{@code index}, {@code fence}),
+     * matching the filter, if it is provided.
+     * Without provided {@link Random} the spliterator is split in halves for parallel streams,
+     * and every VIN is generated with {@link ThreadLocalRandom} of the current thread.
+     */
+    private static final class RandomVinSpliterator implements Spliterator<String> {
+        private final VinPrefixFilter filter;
+        private final Random random;
+        private final long fence;
+        private long index;
+
+        RandomVinSpliterator(final VinPrefixFilter filter,
+                             final Random random,
+                             final long index,
+                             final long fence) {
+            this.filter = filter;
+            this.random = random;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            final long middle = (this.index + this.fence) >>> 1;
+
+            if (this.random != null || middle <= this.index) {
+                return null;
+            }
+
+            final Spliterator<String> prefix = new RandomVinSpliterator(this.filter, null, this.index, middle);
+            this.index = middle;
+
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super String> action) {
+            if (this.index >= this.fence) {
+                return false;
+            }
+
+            this.index++;
+            action.accept(next(this.random != null ? this.random : ThreadLocalRandom.current()));
+
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super String> action) {
+            final Random source = this.random != null ? this.random : ThreadLocalRandom.current();
+            final long end = this.fence;
+
+            for (long i = this.index; i < end; i++) {
+                action.accept(next(source));
+            }
+
+            this.index = end;
+        }
+
+        private String next(final Random source) {
+            return new String(fillRandomVin(this.filter, source, new char[17]));
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Spliterator of VIN's from {@link UniqueVinGenerator}, which is not thread-safe,
+     * so the spliterator is never split and VIN's are generated by one thread at a time, also in parallel streams
+     */
+    private static final class UniqueVinSpliterator implements Spliterator<String> {
+        private final UniqueVinGenerator generator;
+        private int remaining;
+
+        UniqueVinSpliterator(final UniqueVinGenerator generator,
+                             final int count) {
+            this.generator = generator;
+            this.remaining = count;
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            return null;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super String> action) {
+            if (this.remaining <= 0) {
+                return false;
+            }
+
+            this.remaining--;
+            action.accept(this.generator.next());
+
+            return true;
         }
 
-        String getVds() {
-            return this.vds;
+        @Override
+        public long estimateSize() {
+            return this.remaining;
         }
 
-        String getYear() {
-            return this.year;
+        @Override
+        public int characteristics() {
+            return SIZED | NONNULL | IMMUTABLE | DISTINCT;
         }
     }
-}
\ No newline at end of file
+}
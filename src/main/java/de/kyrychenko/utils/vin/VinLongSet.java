@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+/**
+ * Set of non-negative {@code long} values with open addressing and linear probing
+ * in a single {@code long[]}, used to keep packed VIN's without boxing.
+ * <p>
+ * Values are stored incremented by one, so {@code 0} marks an empty slot.
+ * Table doubles, when {@value #MAX_LOAD}% of slots are in use, so 40-80% of slots are in use.
+ * The set is not thread-safe.
+ */
+final class VinLongSet {
+    private static final int MAX_CAPACITY = 1 << 30;
+    /**
+     * Maximal load of the table in percents
+     */
+    private static final int MAX_LOAD = 80;
+
+    private long[] table;
+    private int size;
+    private int threshold;
+
+    /**
+     * @param expectedSize expected number of values, used to size the table
+     */
+    VinLongSet(final int expectedSize) {
+        int capacity = 16;
+
+        while (capacity < MAX_CAPACITY && (long) capacity * MAX_LOAD / 100 < expectedSize) {
+            capacity <<= 1;
+        }
+
+        allocate(capacity);
+    }
+
+    /**
+     * @return number of values in the set
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Add value to the set
+     *
+     * @param value non-negative value to add
+     * @return {@code true} if the value was added, {@code false} if it is already in the set
+     */
+    boolean add(final long value) {
+        final long stored = value + 1;
+        final int mask = this.table.length - 1;
+        int slot = slot(stored, mask);
+
+        while (this.table[slot] != 0) {
+            if (this.table[slot] == stored) {
+                return false;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        this.table[slot] = stored;
+
+        if (++this.size > this.threshold) {
+            grow();
+        }
+
+        return true;
+    }
+
+    /**
+     * @param value non-negative value to find
+     * @return {@code true} if the value is in the set
+     */
+    boolean contains(final long value) {
+        final long stored = value + 1;
+        final int mask = this.table.length - 1;
+        int slot = slot(stored, mask);
+
+        while (this.table[slot] != 0) {
+            if (this.table[slot] == stored) {
+                return true;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return false;
+    }
+
+    private void grow() {
+        if (this.table.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Set could not hold more than " + this.threshold + " values");
+        }
+
+        final long[] old = this.table;
+
+        allocate(old.length << 1);
+
+        final int mask = this.table.length - 1;
+
+        for (final long stored : old) {
+            if (stored != 0) {
+                int slot = slot(stored, mask);
+
+                while (this.table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+
+                this.table[slot] = stored;
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        this.table = new long[capacity];
+        this.threshold = (int) ((long) capacity * MAX_LOAD / 100);
+    }
+
+    private static int slot(final long stored,
+                            final int mask) {
+        // fibonacci hashing spreads sequential values over the table
+        return (int) ((stored * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
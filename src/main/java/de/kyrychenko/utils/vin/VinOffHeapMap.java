@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Map of VIN's to {@code long} values (e.g. vehicle or fleet id's), stored off-heap as packed VIN's
+ * (see {@link VinCodec}), for registries of hundreds of millions of vehicles without load on garbage collector.
+ * <p>
+ * Entry takes 24 bytes, capacity is fixed on creation. Map in a file is reopened by mapping the file,
+ * without reading it, so a service is ready to look VIN's up right after restart.
+ * <p>
+ * Only valid VIN's (after normalization as by {@link VinValidatorUtils}) are put.
+ * Lookups are lock-free and could run concurrently with each other and with puts,
+ * which are serialized; a lookup sees every put, which completed before the lookup began.
+ * Values are aligned to 8 bytes, so a lookup, concurrent with replacement of the value, gets either the old or the new one.
+ * Buffers are released by garbage collector, when the map is no more reachable.
+ */
+public final class VinOffHeapMap extends VinOffHeapTable {
+    private static final int ENTRY_SIZE = 24;
+
+    private VinOffHeapMap(final long expectedSize) {
+        super(ENTRY_SIZE, expectedSize);
+    }
+
+    private VinOffHeapMap(final Path file,
+                          final long expectedSize) throws IOException {
+        super(ENTRY_SIZE, file, expectedSize);
+    }
+
+    private VinOffHeapMap(final Path file,
+                          final boolean writable) throws IOException {
+        super(ENTRY_SIZE, file, writable);
+    }
+
+    /**
+     * Create an empty map in direct memory
+     *
+     * @param expectedSize maximum number of VIN's in the map
+     * @return created map
+     */
+    public static VinOffHeapMap allocate(final long expectedSize) {
+        return new VinOffHeapMap(expectedSize);
+    }
+
+    /**
+     * Create an empty map in a memory-mapped file, puts are written through to the file
+     *
+     * @param file         file of the map, it is created or overwritten
+     * @param expectedSize maximum number of VIN's in the map
+     * @return created map
+     * @throws IOException if file could not be created
+     */
+    public static VinOffHeapMap create(final Path file,
+                                       final long expectedSize) throws IOException {
+        return new VinOffHeapMap(file, expectedSize);
+    }
+
+    /**
+     * Open a map, created by {@link #create(Path, long)} or written by {@link #save(Path)}, by mapping its file
+     *
+     * @param file     file of the map
+     * @param writable whether VIN's could be put to the map (and to the file)
+     * @return opened map
+     * @throws IOException if file could not be read or is not a file of a map
+     */
+    public static VinOffHeapMap open(final Path file,
+                                     final boolean writable) throws IOException {
+        return new VinOffHeapMap(file, writable);
+    }
+
+    /**
+     * Put VIN with a value to the map, replacing its previous value
+     *
+     * @param vin   VIN to put
+     * @param value value of VIN
+     * @return {@code true} if VIN was added, {@code false} if it was already in the map
+     * @throws IllegalArgumentException if VIN is not valid
+     * @throws IllegalStateException    if map is full or opened read-only
+     */
+    public boolean put(final CharSequence vin,
+                       final long value) {
+        final long[] packed = VinCodec.tryPack(vin);
+
+        if (packed == null) {
+            throw new IllegalArgumentException("Provided VIN is not valid: " + vin);
+        }
+
+        return put(packed[0], (int) packed[1], value);
+    }
+
+    /**
+     * Put packed VIN with a value to the map, replacing its previous value
+     *
+     * @param high  packed chars 0-11
+     * @param low   packed chars 12-16
+     * @param value value of VIN
+     * @return {@code true} if VIN was added, {@code false} if it was already in the map
+     * @throws IllegalArgumentException if VIN is not valid
+     * @throws IllegalStateException    if map is full or opened read-only
+     */
+    public boolean put(final long high,
+                       final int low,
+                       final long value) {
+        if (!VinCodec.isValidVin(high, low)) {
+            throw new IllegalArgumentException("Provided VIN is not valid: " + VinCodec.decode(high, low));
+        }
+
+        return insert(high, low, value, true);
+    }
+
+    /**
+     * Put VIN's with values from a text file, lines are VIN, {@code delimiter} and a value, empty lines are skipped
+     *
+     * @param file      text file with VIN's and values
+     * @param delimiter delimiter of VIN and value in a line
+     * @return number of added VIN's, which were not in the map
+     * @throws IOException              if file could not be read
+     * @throws IllegalArgumentException if a line has no valid VIN or value, previous lines stay put
+     * @throws IllegalStateException    if map is full or opened read-only
+     */
+    public long putAll(final Path file,
+                       final char delimiter) throws IOException {
+        if (delimiter == 0 || VinGeneratorUtils.ALLOWED_CHARS.indexOf(Character.toUpperCase(delimiter)) >= 0) {
+            throw new IllegalArgumentException("Delimiter should not be a char of VIN");
+        }
+
+        return insertAll(file, delimiter, true);
+    }
+
+    /**
+     * Get value of VIN
+     *
+     * @param vin          VIN to look up
+     * @param defaultValue value to return if VIN is not in the map
+     * @return value of VIN, {@code defaultValue} if VIN is not in the map or is not valid
+     */
+    public long get(final CharSequence vin,
+                    final long defaultValue) {
+        final long[] packed = VinCodec.tryPack(vin);
+
+        return packed != null ? get(packed[0], (int) packed[1], defaultValue) : defaultValue;
+    }
+
+    /**
+     * Get value of packed VIN
+     *
+     * @param high         packed chars 0-11
+     * @param low          packed chars 12-16
+     * @param defaultValue value to return if VIN is not in the map
+     * @return value of VIN, {@code defaultValue} if VIN is not in the map
+     */
+    public long get(final long high,
+                    final int low,
+                    final long defaultValue) {
+        final long slot = lookup(high, low);
+
+        return slot >= 0 ? valueAt(slot) : defaultValue;
+    }
+
+    /**
+     * Check whether VIN is in the map
+     *
+     * @param vin VIN to check
+     * @return {@code true} if VIN is in the map, {@code false} otherwise, including VIN's, which are not valid
+     */
+    public boolean containsKey(final CharSequence vin) {
+        final long[] packed = VinCodec.tryPack(vin);
+
+        return packed != null && lookup(packed[0], (int) packed[1]) >= 0;
+    }
+}
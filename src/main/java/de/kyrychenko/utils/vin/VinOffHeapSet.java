@@ -0,0 +1,168 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Set of VIN's, stored off-heap as packed VIN's (see {@link VinCodec}), for membership checks
+ * against registries of hundreds of millions of vehicles without load on garbage collector.
+ * <p>
+ * Entry takes 12 bytes, capacity is fixed on creation: table of 300 million VIN's takes 4.8 GB of direct memory
+ * or of a memory-mapped file. Set in a file is reopened by mapping the file, without reading it,
+ * so a service is ready to check VIN's right after restart.
+ * <p>
+ * Only valid VIN's (after normalization as by {@link VinValidatorUtils}) are added.
+ * Lookups are lock-free and could run concurrently with each other and with additions,
+ * which are serialized; a lookup sees every addition, which completed before the lookup began.
+ * Buffers are released by garbage collector, when the set is no more reachable.
+ */
+public final class VinOffHeapSet extends VinOffHeapTable {
+    private static final int ENTRY_SIZE = 12;
+
+    private VinOffHeapSet(final long expectedSize) {
+        super(ENTRY_SIZE, expectedSize);
+    }
+
+    private VinOffHeapSet(final Path file,
+                          final long expectedSize) throws IOException {
+        super(ENTRY_SIZE, file, expectedSize);
+    }
+
+    private VinOffHeapSet(final Path file,
+                          final boolean writable) throws IOException {
+        super(ENTRY_SIZE, file, writable);
+    }
+
+    /**
+     * Create an empty set in direct memory
+     *
+     * @param expectedSize maximum number of VIN's in the set
+     * @return created set
+     */
+    public static VinOffHeapSet allocate(final long expectedSize) {
+        return new VinOffHeapSet(expectedSize);
+    }
+
+    /**
+     * Create an empty set in a memory-mapped file, additions are written through to the file
+     *
+     * @param file         file of the set, it is created or overwritten
+     * @param expectedSize maximum number of VIN's in the set
+     * @return created set
+     * @throws IOException if file could not be created
+     */
+    public static VinOffHeapSet create(final Path file,
+                                       final long expectedSize) throws IOException {
+        return new VinOffHeapSet(file, expectedSize);
+    }
+
+    /**
+     * Open a set, created by {@link #create(Path, long)} or written by {@link #save(Path)}, by mapping its file
+     *
+     * @param file     file of the set
+     * @param writable whether VIN's could be added to the set (and to the file)
+     * @return opened set
+     * @throws IOException if file could not be read or is not a file of a set
+     */
+    public static VinOffHeapSet open(final Path file,
+                                     final boolean writable) throws IOException {
+        return new VinOffHeapSet(file, writable);
+    }
+
+    /**
+     * Add VIN to the set
+     *
+     * @param vin VIN to add
+     * @return {@code true} if VIN was added, {@code false} if it is already in the set
+     * @throws IllegalArgumentException if VIN is not valid
+     * @throws IllegalStateException    if set is full or opened read-only
+     */
+    public boolean add(final CharSequence vin) {
+        final long[] packed = VinCodec.tryPack(vin);
+
+        if (packed == null) {
+            throw new IllegalArgumentException("Provided VIN is not valid: " + vin);
+        }
+
+        return add(packed[0], (int) packed[1]);
+    }
+
+    /**
+     * Add packed VIN to the set
+     *
+     * @param high packed chars 0-11
+     * @param low  packed chars 12-16
+     * @return {@code true} if VIN was added, {@code false} if it is already in the set
+     * @throws IllegalArgumentException if VIN is not valid
+     * @throws IllegalStateException    if set is full or opened read-only
+     */
+    public boolean add(final long high,
+                       final int low) {
+        if (!VinCodec.isValidVin(high, low)) {
+            throw new IllegalArgumentException("Provided VIN is not valid: " + VinCodec.decode(high, low));
+        }
+
+        return insert(high, low, 0, false);
+    }
+
+    /**
+     * Add VIN's from a text file, one VIN per line, empty lines are skipped
+     *
+     * @param file text file with VIN's
+     * @return number of added VIN's, which were not in the set
+     * @throws IOException              if file could not be read
+     * @throws IllegalArgumentException if a line has no valid VIN, VIN's of previous lines stay added
+     * @throws IllegalStateException    if set is full or opened read-only
+     */
+    public long addAll(final Path file) throws IOException {
+        return insertAll(file, (char) 0, false);
+    }
+
+    /**
+     * Check whether VIN is in the set
+     *
+     * @param vin VIN to check
+     * @return {@code true} if VIN is in the set, {@code false} otherwise, including VIN's, which are not valid
+     */
+    public boolean contains(final CharSequence vin) {
+        final long[] packed = VinCodec.tryPack(vin);
+
+        return packed != null && lookup(packed[0], (int) packed[1]) >= 0;
+    }
+
+    /**
+     * Check whether packed VIN is in the set
+     *
+     * @param high packed chars 0-11
+     * @param low  packed chars 12-16
+     * @return {@code true} if VIN is in the set, {@code false} otherwise
+     */
+    public boolean contains(final long high,
+                            final int low) {
+        return lookup(high, low) >= 0;
+    }
+}
@@ -0,0 +1,436 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Open addressing hash table of packed VIN's (see {@link VinCodec}), stored off-heap
+ * in direct or memory-mapped {@link ByteBuffer}'s, the engine of {@link VinOffHeapSet} and {@link VinOffHeapMap}.
+ * <p>
+ * Every entry is {@code high} (8 bytes), {@code low} with occupied flag in its sign bit (4 bytes)
+ * and, for maps, 4 bytes of padding and a value (8 bytes); entries of maps take 24 bytes, so values are aligned to 8 bytes.
+ * Slot of a VIN is its {@link VinCodec#hash(long, int)}, mapped to the capacity by multiplication,
+ * collisions are resolved by linear probing.
+ * Entries are never removed, so capacity is fixed on creation for the expected number of entries.
+ * Slots are spread over buffers of {@code 2^24} slots, so the table is not limited by 2 GB size of a buffer.
+ * <p>
+ * File of a table is a header of {@value #HEADER_SIZE} bytes (magic number, format version, entry size,
+ * capacity and size), followed by slots, all in little-endian byte order; it is mapped into memory as is.
+ * <p>
+ * Lookups are lock-free, insertions are serialized. An entry is completely written before its occupied flag,
+ * and size is published through a volatile field, which every lookup reads first,
+ * so a lookup sees every insertion, which returned before the lookup began. Replaced value is written
+ * by a single aligned store, so a concurrent lookup does not read a torn value.
+ */
+abstract class VinOffHeapTable {
+    static final int HEADER_SIZE = 64;
+
+    /**
+     * "VINH" in US-ASCII
+     */
+    private static final int MAGIC = 0x56494E48;
+    private static final int VERSION = 1;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int ENTRY_SIZE_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int SIZE_OFFSET = 24;
+
+    private static final int LOW_OFFSET = Long.BYTES;
+    private static final int VALUE_OFFSET = 2 * Long.BYTES;
+    private static final int OCCUPIED = 0x80000000;
+
+    private static final int SEGMENT_SHIFT = 24;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    private static final int MAX_LOAD_PERCENT = 75;
+
+    private final int entrySize;
+    private final long capacity;
+    private final long maxSize;
+    private final ByteBuffer[] segments;
+    private final ByteBuffer header;
+    private final boolean readOnly;
+    private volatile long size;
+
+    /**
+     * Create an empty table in direct buffers
+     *
+     * @param entrySize    size of an entry in bytes
+     * @param expectedSize maximum number of entries
+     */
+    VinOffHeapTable(final int entrySize,
+                    final long expectedSize) {
+        this.entrySize = entrySize;
+        this.capacity = capacityOf(expectedSize);
+        this.maxSize = this.capacity * MAX_LOAD_PERCENT / 100;
+        this.segments = new ByteBuffer[segmentCount(this.capacity)];
+        this.header = null;
+        this.readOnly = false;
+
+        for (int i = 0; i < this.segments.length; i++) {
+            this.segments[i] = ByteBuffer.allocateDirect(segmentSlots(i) * entrySize).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Create a table in a file, which is mapped into memory
+     *
+     * @param entrySize    size of an entry in bytes
+     * @param file         file of the table, it is created or overwritten
+     * @param expectedSize maximum number of entries
+     * @throws IOException if file could not be created
+     */
+    VinOffHeapTable(final int entrySize,
+                    final Path file,
+                    final long expectedSize) throws IOException {
+        this.entrySize = entrySize;
+        this.capacity = capacityOf(expectedSize);
+        this.maxSize = this.capacity * MAX_LOAD_PERCENT / 100;
+        this.segments = new ByteBuffer[segmentCount(this.capacity)];
+        this.readOnly = false;
+
+        try (final RandomAccessFile output = new RandomAccessFile(file.toFile(), "rw")) {
+            // file is sparse and zero-filled, so all slots are free
+            output.setLength(0);
+            output.setLength(HEADER_SIZE + this.capacity * entrySize);
+
+            this.header = map(output.getChannel(), FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            this.header.putInt(MAGIC_OFFSET, MAGIC);
+            this.header.putInt(VERSION_OFFSET, VERSION);
+            this.header.putInt(ENTRY_SIZE_OFFSET, entrySize);
+            this.header.putLong(CAPACITY_OFFSET, this.capacity);
+            this.header.putLong(SIZE_OFFSET, 0);
+
+            mapSegments(output.getChannel(), FileChannel.MapMode.READ_WRITE);
+        }
+    }
+
+    /**
+     * Open a table, previously created in or saved to a file, by mapping the file into memory
+     *
+     * @param entrySize size of an entry in bytes
+     * @param file      file of the table
+     * @param writable  whether entries could be inserted into the table
+     * @throws IOException if file could not be read or has unsupported format
+     */
+    VinOffHeapTable(final int entrySize,
+                    final Path file,
+                    final boolean writable) throws IOException {
+        final FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+
+        try (final RandomAccessFile input = new RandomAccessFile(file.toFile(), writable ? "rw" : "r")) {
+            if (input.length() < HEADER_SIZE) {
+                throw new IOException("Unsupported format of " + file);
+            }
+
+            final ByteBuffer header = map(input.getChannel(), mode, 0, HEADER_SIZE);
+            final long capacity = header.getLong(CAPACITY_OFFSET);
+
+            if (header.getInt(MAGIC_OFFSET) != MAGIC
+                    || header.getInt(VERSION_OFFSET) != VERSION
+                    || header.getInt(ENTRY_SIZE_OFFSET) != entrySize
+                    || capacity < 1
+                    || input.length() != HEADER_SIZE + capacity * entrySize) {
+                throw new IOException("Unsupported format of " + file);
+            }
+
+            this.entrySize = entrySize;
+            this.capacity = capacity;
+            this.maxSize = capacity * MAX_LOAD_PERCENT / 100;
+            this.segments = new ByteBuffer[segmentCount(capacity)];
+            this.header = writable ? header : null;
+            this.readOnly = !writable;
+            this.size = header.getLong(SIZE_OFFSET);
+
+            mapSegments(input.getChannel(), mode);
+        }
+    }
+
+    private static long capacityOf(final long expectedSize) {
+        if (expectedSize < 1 || expectedSize > Long.MAX_VALUE / 100) {
+            throw new IllegalArgumentException("Expected size should be positive, but was " + expectedSize);
+        }
+
+        return Math.max(16, expectedSize * 100 / MAX_LOAD_PERCENT + 1);
+    }
+
+    private static int segmentCount(final long capacity) {
+        final long count = (capacity + SEGMENT_MASK) >>> SEGMENT_SHIFT;
+
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Table of " + capacity + " slots is too large");
+        }
+
+        return (int) count;
+    }
+
+    private int segmentSlots(final int segment) {
+        return (int) Math.min(1 << SEGMENT_SHIFT, this.capacity - ((long) segment << SEGMENT_SHIFT));
+    }
+
+    private static ByteBuffer map(final FileChannel channel,
+                                  final FileChannel.MapMode mode,
+                                  final long position,
+                                  final long length) throws IOException {
+        return channel.map(mode, position, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void mapSegments(final FileChannel channel,
+                             final FileChannel.MapMode mode) throws IOException {
+        for (int i = 0; i < this.segments.length; i++) {
+            final long position = HEADER_SIZE + ((long) i << SEGMENT_SHIFT) * this.entrySize;
+            this.segments[i] = map(channel, mode, position, (long) segmentSlots(i) * this.entrySize);
+        }
+    }
+
+    /**
+     * @return number of entries in the table
+     */
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * @return number of slots in the table
+     */
+    public long capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Find slot of packed VIN without locking
+     *
+     * @param high packed chars 0-11
+     * @param low  packed chars 12-16
+     * @return index of the slot with the VIN, {@code -1} if it is not in the table
+     */
+    final long lookup(final long high,
+                      final int low) {
+        // volatile read of size makes completed insertions visible
+        if (this.size == 0) {
+            return -1;
+        }
+
+        final long slot = find(high, low);
+
+        return slot >= 0 ? slot : -1;
+    }
+
+    /**
+     * @return index of the slot with the VIN, if it is in the table, otherwise {@code -(index of a free slot) - 1}
+     */
+    private long find(final long high,
+                      final int low) {
+        long slot = VinCodec.scale(VinCodec.hash(high, low), this.capacity);
+        final int key = low | OCCUPIED;
+
+        while (true) {
+            final ByteBuffer segment = this.segments[(int) (slot >>> SEGMENT_SHIFT)];
+            final int offset = (int) (slot & SEGMENT_MASK) * this.entrySize;
+            final int entry = segment.getInt(offset + LOW_OFFSET);
+
+            if (entry == 0) {
+                return -slot - 1;
+            }
+
+            if (entry == key && segment.getLong(offset) == high) {
+                return slot;
+            }
+
+            if (++slot == this.capacity) {
+                slot = 0;
+            }
+        }
+    }
+
+    /**
+     * Insert packed VIN into the table
+     *
+     * @param high    packed chars 0-11
+     * @param low     packed chars 12-16
+     * @param value   value of the entry, ignored for entries without values
+     * @param replace whether value of an existing entry is replaced
+     * @return {@code true} if VIN was inserted, {@code false} if it is already in the table
+     * @throws IllegalStateException if table is full or opened read-only
+     */
+    final synchronized boolean insert(final long high,
+                                      final int low,
+                                      final long value,
+                                      final boolean replace) {
+        if (this.readOnly) {
+            throw new IllegalStateException("Table is opened read-only");
+        }
+
+        final long found = find(high, low);
+
+        if (found >= 0) {
+            if (replace) {
+                segmentOf(found).putLong(offsetOf(found) + VALUE_OFFSET, value);
+            }
+
+            return false;
+        }
+
+        if (this.size >= this.maxSize) {
+            throw new IllegalStateException("Table is full, it holds at most " + this.maxSize + " entries");
+        }
+
+        final long slot = -found - 1;
+        final ByteBuffer segment = segmentOf(slot);
+        final int offset = offsetOf(slot);
+
+        segment.putLong(offset, high);
+
+        if (this.entrySize > VALUE_OFFSET) {
+            segment.putLong(offset + VALUE_OFFSET, value);
+        }
+
+        segment.putInt(offset + LOW_OFFSET, low | OCCUPIED);
+
+        if (this.header != null) {
+            this.header.putLong(SIZE_OFFSET, this.size + 1);
+        }
+
+        this.size++;
+
+        return true;
+    }
+
+    /**
+     * @param slot index of an occupied slot
+     * @return value of the entry in the slot
+     */
+    final long valueAt(final long slot) {
+        return segmentOf(slot).getLong(offsetOf(slot) + VALUE_OFFSET);
+    }
+
+    private ByteBuffer segmentOf(final long slot) {
+        return this.segments[(int) (slot >>> SEGMENT_SHIFT)];
+    }
+
+    private int offsetOf(final long slot) {
+        return (int) (slot & SEGMENT_MASK) * this.entrySize;
+    }
+
+    /**
+     * Insert VIN's from a text file
+     *
+     * @param file      text file, one VIN per line, optionally followed by {@code delimiter} and a value
+     * @param delimiter delimiter of VIN and value, {@code 0} if lines have no values
+     * @param replace   whether values of existing entries are replaced
+     * @return number of inserted VIN's
+     * @throws IOException              if file could not be read
+     * @throws IllegalArgumentException if a line has no valid VIN or value
+     * @throws IllegalStateException    if table is full or opened read-only
+     */
+    final long insertAll(final Path file,
+                         final char delimiter,
+                         final boolean replace) throws IOException {
+        long inserted = 0;
+        long number = 0;
+
+        try (final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                number++;
+
+                final int end = delimiter == 0 ? -1 : line.indexOf(delimiter);
+                final CharSequence vin = end < 0 ? line : line.subSequence(0, end);
+                final long[] packed = VinCodec.tryPack(vin);
+
+                if (packed == null || !VinCodec.isValidVin(packed[0], (int) packed[1])) {
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+
+                    throw new IllegalArgumentException("Line " + number + " of " + file + " has no valid VIN");
+                }
+
+                long value = 0;
+
+                if (delimiter != 0) {
+                    try {
+                        value = Long.parseLong(line.substring(end + 1).trim());
+                    } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                        throw new IllegalArgumentException("Line " + number + " of " + file + " has no valid value", e);
+                    }
+                }
+
+                if (insert(packed[0], (int) packed[1], value, replace)) {
+                    inserted++;
+                }
+            }
+        }
+
+        return inserted;
+    }
+
+    /**
+     * Write the table to a file, which could be opened later
+     *
+     * @param file destination file, it is created or overwritten
+     * @throws IOException if file could not be written
+     */
+    public synchronized void save(final Path file) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        header.putInt(MAGIC_OFFSET, MAGIC);
+        header.putInt(VERSION_OFFSET, VERSION);
+        header.putInt(ENTRY_SIZE_OFFSET, this.entrySize);
+        header.putLong(CAPACITY_OFFSET, this.capacity);
+        header.putLong(SIZE_OFFSET, this.size);
+
+        try (final FileChannel output = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(output, header);
+
+            for (final ByteBuffer segment : this.segments) {
+                writeFully(output, segment.duplicate());
+            }
+        }
+    }
+
+    private static void writeFully(final FileChannel output,
+                                   final ByteBuffer buffer) throws IOException {
+        buffer.clear();
+
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+    }
+}
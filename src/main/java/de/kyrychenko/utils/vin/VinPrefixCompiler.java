@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compiler of the text prefix file into the binary one, loaded by {@link VinPrefixTable}.
+ * Runs during the build, so the text file stays the only edited source of prefixes.
+ * Fails on repeated rows, which would break uniqueness of {@link UniqueVinGenerator} and {@link IndexedVinGenerator}.
+ * <p>
+ * Usage: {@code VinPrefixCompiler <vin-prefixes.txt> <vin-prefixes.bin>}
+ */
+final class VinPrefixCompiler {
+
+    private VinPrefixCompiler() {
+        throw new RuntimeException("Utility class should not be initialized");
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: " + VinPrefixCompiler.class.getName() + " <text file> <binary file>");
+        }
+
+        final Path source = Paths.get(args[0]);
+        final Path target = Paths.get(args[1]);
+        final VinPrefixTable table;
+
+        try (final BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.US_ASCII)) {
+            table = VinPrefixTable.parse(reader);
+        }
+
+        final int repeated = table.indexOfRepeatedRow();
+
+        if (repeated >= 0) {
+            final char[] vin = new char[17];
+            table.copyTo(repeated, vin, 0);
+
+            throw new IOException("Row " + new String(vin, 0, 3) + " " + new String(vin, 3, 5) + " " + vin[9]
+                    + " is repeated in " + source + ", rows should be distinct for generation of unique VIN's");
+        }
+
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+
+        try (final OutputStream stream = Files.newOutputStream(target)) {
+            table.write(stream);
+        }
+    }
+}
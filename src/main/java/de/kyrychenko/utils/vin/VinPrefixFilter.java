@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.util.Random;
+
+/**
+ * Filter of the bundled prefix data by WMI (World Manufacturers Identification),
+ * WMI with VDS (Vehicle Description Section) or model year code,
+ * used to generate VIN's matching the filter with {@link VinGeneratorUtils#getRandomVin(VinPrefixFilter)}.
+ * <p>
+ * Matching rows of the prefix data are resolved once, when the filter is created,
+ * into a contiguous range of a pre-built index, so every draw of a row is O(1).
+ * Filter is immutable and could be shared between threads.
+ */
+public final class VinPrefixFilter {
+    private static final long WMI_RANGE = 33L * 33 * 33 * 33 * 33;
+
+    private final String description;
+    private final int[] rows;
+    private final int from;
+    private final int to;
+
+    private VinPrefixFilter(final String description,
+                            final int[] rows,
+                            final int from,
+                            final int to) {
+        if (from >= to) {
+            throw new IllegalArgumentException("No VIN prefixes match " + description);
+        }
+
+        this.description = description;
+        this.rows = rows;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Create filter of VIN's with the WMI
+     *
+     * @param wmi 3 chars of WMI, e.g. {@code 1HG}
+     * @return the filter
+     * @throws IllegalArgumentException if WMI is malformed or no prefixes match it
+     */
+    public static VinPrefixFilter byWmi(final CharSequence wmi) {
+        final long packed = pack("WMI", wmi, VinPrefixTable.WMI_LENGTH);
+        final VinPrefixIndex index = VinPrefixIndex.getInstance();
+
+        return new VinPrefixFilter("WMI '" + wmi + "'", index.getRowsByPrefix(),
+                index.getPrefixStart(indexOf(packed * WMI_RANGE)),
+                index.getPrefixStart(indexOf((packed + 1) * WMI_RANGE)));
+    }
+
+    /**
+     * Create filter of VIN's with the WMI and VDS
+     *
+     * @param prefix 8 chars of WMI and VDS, e.g. {@code 1HGCM826}
+     * @return the filter
+     * @throws IllegalArgumentException if prefix is malformed or no prefixes match it
+     */
+    public static VinPrefixFilter byPrefix(final CharSequence prefix) {
+        final long packed = pack("Prefix", prefix, VinPrefixTable.WMI_LENGTH + VinPrefixTable.VDS_LENGTH);
+        final VinPrefixIndex index = VinPrefixIndex.getInstance();
+        final int prefixIndex = VinPrefixTable.getInstance().indexOfPrefix(packed);
+
+        return new VinPrefixFilter("prefix '" + prefix + "'", index.getRowsByPrefix(),
+                prefixIndex >= 0 ? index.getPrefixStart(prefixIndex) : 0,
+                prefixIndex >= 0 ? index.getPrefixStart(prefixIndex + 1) : 0);
+    }
+
+    /**
+     * Create filter of VIN's with the model year
+     *
+     * @param yearCode model year code, one of {@link VinPrefixUtils#MODEL_YEAR_CODES}
+     * @return the filter
+     * @throws IllegalArgumentException if year code is unknown or no prefixes match it
+     */
+    public static VinPrefixFilter byModelYear(final char yearCode) {
+        final int yearIndex = VinPrefixTable.YEAR_CODES.indexOf(Character.toUpperCase(yearCode));
+
+        if (yearIndex < 0) {
+            throw new IllegalArgumentException("Unknown model year code '" + yearCode + "'");
+        }
+
+        final VinPrefixIndex index = VinPrefixIndex.getInstance();
+
+        return new VinPrefixFilter("model year '" + yearCode + "'", index.getRowsByYear(),
+                index.getYearStart(yearIndex), index.getYearStart(yearIndex + 1));
+    }
+
+    /**
+     * @return number of rows of the prefix data, matching the filter
+     */
+    public int size() {
+        return this.to - this.from;
+    }
+
+    /**
+     * Draw random row of the prefix data, matching the filter
+     *
+     * @param random source of randomness
+     * @return index of row in the prefix table
+     */
+    int getRandomRow(final Random random) {
+        return this.rows[this.from + random.nextInt(this.to - this.from)];
+    }
+
+    @Override
+    public String toString() {
+        return "VinPrefixFilter{" + this.description + ", " + size() + " prefixes}";
+    }
+
+    private static long pack(final String name,
+                             final CharSequence chars,
+                             final int length) {
+        final String normalized = VinValidatorUtils.normalizeVin(chars);
+        final long packed = normalized != null && normalized.length() == length
+                ? VinCodec.packPrefix(normalized, length)
+                : -1;
+
+        if (packed < 0) {
+            throw new IllegalArgumentException(name + " should be " + length + " chars of VIN, but was '" + chars + "'");
+        }
+
+        return packed;
+    }
+
+    private static int indexOf(final long prefix) {
+        final int index = VinPrefixTable.getInstance().indexOfPrefix(prefix);
+
+        return index >= 0 ? index : -index - 1;
+    }
+}
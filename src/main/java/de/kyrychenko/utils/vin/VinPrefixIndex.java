@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.util.Arrays;
+
+/**
+ * Buckets of rows of {@link VinPrefixTable} by WMI+VDS prefix and by model year.
+ * <p>
+ * Rows are ordered by prefix in {@link #getRowsByPrefix()}, so rows of a prefix,
+ * as well as rows of a WMI, which is a range of sorted prefixes, form a contiguous range.
+ * Rows are ordered by model year in {@link #getRowsByYear()}, with a contiguous range per year code.
+ * Both orders are built with counting sort once, on first access to the index.
+ */
+final class VinPrefixIndex {
+    private final int[] rowsByPrefix;
+    private final int[] prefixStarts;
+    private final int[] rowsByYear;
+    private final int[] yearStarts;
+
+    private VinPrefixIndex(final VinPrefixTable table) {
+        final int size = table.size();
+        final int prefixCount = table.getPrefixCount();
+        final int yearCount = VinPrefixTable.YEAR_CODES.length();
+        final int[] prefixIndexes = new int[size];
+        final int[] yearIndexes = new int[size];
+
+        this.prefixStarts = new int[prefixCount + 1];
+        this.yearStarts = new int[yearCount + 1];
+
+        for (int row = 0; row < size; row++) {
+            prefixIndexes[row] = table.indexOfPrefix(table.getPrefix(row));
+            yearIndexes[row] = VinPrefixTable.YEAR_CODES.indexOf(table.getYear(row));
+            this.prefixStarts[prefixIndexes[row] + 1]++;
+            this.yearStarts[yearIndexes[row] + 1]++;
+        }
+
+        this.rowsByPrefix = sort(prefixIndexes, this.prefixStarts);
+        this.rowsByYear = sort(yearIndexes, this.yearStarts);
+    }
+
+    /**
+     * Get the index, building it on the first call
+     *
+     * @return shared instance of the index
+     */
+    static VinPrefixIndex getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return rows of the prefix table, ordered by prefix
+     */
+    int[] getRowsByPrefix() {
+        return this.rowsByPrefix;
+    }
+
+    /**
+     * @param prefixIndex index of prefix in sorted distinct prefixes of the table, up to number of prefixes inclusive
+     * @return index in {@link #getRowsByPrefix()} of the first row with the prefix
+     */
+    int getPrefixStart(final int prefixIndex) {
+        return this.prefixStarts[prefixIndex];
+    }
+
+    /**
+     * @return rows of the prefix table, ordered by model year
+     */
+    int[] getRowsByYear() {
+        return this.rowsByYear;
+    }
+
+    /**
+     * @param yearIndex index of year code in {@link VinPrefixTable#YEAR_CODES}, up to number of codes inclusive
+     * @return index in {@link #getRowsByYear()} of the first row with the year code
+     */
+    int getYearStart(final int yearIndex) {
+        return this.yearStarts[yearIndex];
+    }
+
+    /**
+     * Counting sort of rows by their keys
+     *
+     * @param keys   key of every row
+     * @param starts number of rows per key, shifted by one; turned into start of rows per key
+     * @return rows ordered by key, in original order within a key
+     */
+    private static int[] sort(final int[] keys,
+                              final int[] starts) {
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+
+        final int[] next = Arrays.copyOf(starts, starts.length - 1);
+        final int[] rows = new int[keys.length];
+
+        for (int row = 0; row < keys.length; row++) {
+            rows[next[keys[row]]++] = row;
+        }
+
+        return rows;
+    }
+
+    /**
+     * Lazy holder, so the index is built only on first access
+     */
+    private static final class Holder {
+        private static final VinPrefixIndex INSTANCE = new VinPrefixIndex(VinPrefixTable.getInstance());
+    }
+}
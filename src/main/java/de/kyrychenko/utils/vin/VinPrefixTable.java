@@ -0,0 +1,362 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Immutable in-memory table of VIN prefixes from {@code vin-prefixes.txt}.
+ * <p>
+ * Every row holds WMI (3 chars), VDS (5 chars) and model year (1 char) as US-ASCII bytes,
+ * stored one after another in a single {@code byte[]}, so a row is accessed in O(1)
+ * without creating an object per row.
+ * <p>
+ * Distinct WMI+VDS prefixes are indexed in a sorted array of packed prefixes (base 33 digits,
+ * see {@link VinCodec}) with a bit mask of model years per prefix, searched with binary search.
+ * <p>
+ * The table is loaded once from {@code vin-prefixes.bin}, compiled from the text file
+ * by {@link VinPrefixCompiler} during the build, and parsed from the text file if the binary one is missing.
+ * Binary file has a header (magic number, format version, number of rows and number of prefixes),
+ * followed by rows, packed prefixes and year masks of prefixes.
+ */
+final class VinPrefixTable {
+    static final String PREFIXES_FILE_NAME = "vin-prefixes.txt";
+    static final String COMPILED_PREFIXES_FILE_NAME = "vin-prefixes.bin";
+
+    static final int WMI_LENGTH = 3;
+    static final int VDS_LENGTH = 5;
+    static final int ROW_WIDTH = WMI_LENGTH + VDS_LENGTH + 1;
+
+    /**
+     * Codes of model year in order of their bits in year masks
+     */
+    static final String YEAR_CODES = "ABCDEFGHJKLMNPRSTVWXY123456789";
+
+    /**
+     * "VINP" in US-ASCII
+     */
+    private static final int MAGIC = 0x56494E50;
+    private static final int VERSION = 1;
+
+    private final byte[] rows;
+    private final int size;
+    private final long[] prefixes;
+    private final int[] yearMasks;
+
+    private VinPrefixTable(final byte[] rows,
+                           final int size,
+                           final long[] prefixes,
+                           final int[] yearMasks) {
+        this.rows = rows;
+        this.size = size;
+        this.prefixes = prefixes;
+        this.yearMasks = yearMasks;
+    }
+
+    private VinPrefixTable(final byte[] rows,
+                           final int size) {
+        this.rows = rows;
+        this.size = size;
+
+        final long[] entries = new long[size];
+
+        for (int row = 0; row < size; row++) {
+            entries[row] = getEntry(row);
+        }
+
+        Arrays.sort(entries);
+
+        final long[] prefixes = new long[size];
+        final int[] yearMasks = new int[size];
+        int count = 0;
+
+        for (final long entry : entries) {
+            final long prefix = entry >>> 5;
+
+            if (count == 0 || prefixes[count - 1] != prefix) {
+                prefixes[count++] = prefix;
+            }
+
+            yearMasks[count - 1] |= 1 << (entry & 31);
+        }
+
+        this.prefixes = Arrays.copyOf(prefixes, count);
+        this.yearMasks = Arrays.copyOf(yearMasks, count);
+    }
+
+    /**
+     * Get the table, loading it on the first call
+     *
+     * @return shared instance of the table
+     */
+    static VinPrefixTable getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return number of rows in the table
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Copy WMI and VDS of the row to positions 0-7 and model year to position 9 of a VIN
+     *
+     * @param row    index of the row
+     * @param vin    destination VIN chars
+     * @param offset index of the first VIN char in {@code vin}
+     */
+    void copyTo(final int row,
+                final char[] vin,
+                final int offset) {
+        final int start = row * ROW_WIDTH;
+
+        for (int i = 0; i < WMI_LENGTH + VDS_LENGTH; i++) {
+            vin[offset + i] = (char) this.rows[start + i];
+        }
+
+        vin[offset + 9] = (char) this.rows[start + WMI_LENGTH + VDS_LENGTH];
+    }
+
+    /**
+     * @param row index of the row
+     * @return model year char of the row
+     */
+    char getYear(final int row) {
+        return (char) this.rows[row * ROW_WIDTH + WMI_LENGTH + VDS_LENGTH];
+    }
+
+    /**
+     * @param row index of the row
+     * @return WMI and VDS of the row, packed as base 33 digits
+     */
+    long getPrefix(final int row) {
+        long prefix = 0;
+
+        for (int i = 0; i < WMI_LENGTH + VDS_LENGTH; i++) {
+            prefix = prefix * 33 + VinGeneratorUtils.ALLOWED_CHARS.indexOf(this.rows[row * ROW_WIDTH + i]);
+        }
+
+        return prefix;
+    }
+
+    /**
+     * @param prefix WMI and VDS, packed as base 33 digits
+     * @return bit mask of model years (bits in order of {@link #YEAR_CODES}) of the prefix, {@code 0} if prefix is unknown
+     */
+    int getYearMask(final long prefix) {
+        final int index = Arrays.binarySearch(this.prefixes, prefix);
+
+        return index >= 0 ? this.yearMasks[index] : 0;
+    }
+
+    /**
+     * @return number of distinct WMI+VDS prefixes in the table
+     */
+    int getPrefixCount() {
+        return this.prefixes.length;
+    }
+
+    /**
+     * Search the prefix in sorted distinct prefixes of the table
+     *
+     * @param prefix WMI and VDS, packed as base 33 digits
+     * @return index of the prefix, if it is found, otherwise {@code -(insertion point) - 1},
+     * as of {@link Arrays#binarySearch(long[], long)}
+     */
+    int indexOfPrefix(final long prefix) {
+        return Arrays.binarySearch(this.prefixes, prefix);
+    }
+
+    /**
+     * Find a row, which repeats an earlier row. Generators of unique VIN's rely on distinct rows,
+     * so {@link VinPrefixCompiler} fails the build on repeated rows.
+     *
+     * @return index of the first row, which repeats an earlier one, {@code -1} if all rows are distinct
+     */
+    int indexOfRepeatedRow() {
+        final VinLongSet entries = new VinLongSet(this.size);
+
+        for (int row = 0; row < this.size; row++) {
+            if (!entries.add(getEntry(row))) {
+                return row;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param row index of the row
+     * @return WMI and VDS, packed as base 33 digits, followed by index of model year in 5 bits
+     */
+    private long getEntry(final int row) {
+        return getPrefix(row) << 5 | YEAR_CODES.indexOf(getYear(row));
+    }
+
+    /**
+     * Write the table in binary format
+     *
+     * @param stream destination stream
+     * @throws IOException if table could not be written
+     */
+    void write(final OutputStream stream) throws IOException {
+        final DataOutputStream output = new DataOutputStream(stream);
+        final ByteBuffer index = ByteBuffer.allocate(this.prefixes.length * (Long.BYTES + Integer.BYTES));
+
+        index.asLongBuffer().put(this.prefixes);
+        index.position(this.prefixes.length * Long.BYTES);
+        index.asIntBuffer().put(this.yearMasks);
+
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(this.size);
+        output.writeInt(this.prefixes.length);
+        output.write(this.rows, 0, this.size * ROW_WIDTH);
+        output.write(index.array());
+        output.flush();
+    }
+
+    /**
+     * Read the table in binary format
+     *
+     * @param stream source stream
+     * @return read table
+     * @throws IOException if table could not be read
+     */
+    static VinPrefixTable read(final InputStream stream) throws IOException {
+        final DataInputStream input = new DataInputStream(stream);
+
+        if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+            throw new IOException("Unsupported format of " + COMPILED_PREFIXES_FILE_NAME);
+        }
+
+        final int size = input.readInt();
+        final int prefixCount = input.readInt();
+        final byte[] rows = new byte[size * ROW_WIDTH];
+        final byte[] index = new byte[prefixCount * (Long.BYTES + Integer.BYTES)];
+        final long[] prefixes = new long[prefixCount];
+        final int[] yearMasks = new int[prefixCount];
+
+        input.readFully(rows);
+        input.readFully(index);
+
+        final ByteBuffer buffer = ByteBuffer.wrap(index);
+        buffer.asLongBuffer().get(prefixes);
+        buffer.position(prefixCount * Long.BYTES);
+        buffer.asIntBuffer().get(yearMasks);
+
+        return new VinPrefixTable(rows, size, prefixes, yearMasks);
+    }
+
+    /**
+     * Parse the table from text format: a header line, followed by lines with WMI, VDS and model year
+     *
+     * @param reader source of text
+     * @return parsed table
+     * @throws IOException if table could not be read
+     */
+    static VinPrefixTable parse(final BufferedReader reader) throws IOException {
+        byte[] rows = new byte[ROW_WIDTH * 65536];
+        int size = 0;
+
+        // first line is a header
+        String line = reader.readLine();
+
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+
+            final String[] fields = line.trim().split("\\s+");
+
+            if (fields.length != 3
+                    || fields[0].length() != WMI_LENGTH
+                    || fields[1].length() != VDS_LENGTH
+                    || fields[2].length() != 1
+                    || !isAllowed(fields[0] + fields[1])
+                    || YEAR_CODES.indexOf(fields[2].charAt(0)) < 0) {
+                throw new IOException("Malformed line '" + line + "' in " + PREFIXES_FILE_NAME);
+            }
+
+            if ((size + 1) * ROW_WIDTH > rows.length) {
+                rows = Arrays.copyOf(rows, rows.length * 2);
+            }
+
+            final byte[] row = (fields[0] + fields[1] + fields[2]).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(row, 0, rows, size * ROW_WIDTH, ROW_WIDTH);
+            size++;
+        }
+
+        return new VinPrefixTable(Arrays.copyOf(rows, size * ROW_WIDTH), size);
+    }
+
+    private static boolean isAllowed(final String chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            if (VinGeneratorUtils.ALLOWED_CHARS.indexOf(chars.charAt(i)) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static VinPrefixTable load() {
+        try (final InputStream stream = VinPrefixTable.class.getResourceAsStream("/" + COMPILED_PREFIXES_FILE_NAME)) {
+            if (stream != null) {
+                return read(stream);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Problem occurred while reading " + COMPILED_PREFIXES_FILE_NAME, e);
+        }
+
+        try (final InputStream stream = VinPrefixTable.class.getResourceAsStream("/" + PREFIXES_FILE_NAME)) {
+            if (stream == null) {
+                throw new IllegalStateException("Resource " + PREFIXES_FILE_NAME + " was not found");
+            }
+
+            return parse(new BufferedReader(new InputStreamReader(stream, StandardCharsets.US_ASCII)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Problem occurred while reading " + PREFIXES_FILE_NAME, e);
+        }
+    }
+
+    /**
+     * Lazy holder, so the file is read only on first access to the table
+     */
+    private static final class Holder {
+        private static final VinPrefixTable INSTANCE = load();
+    }
+}
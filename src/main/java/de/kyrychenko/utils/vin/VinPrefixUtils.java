@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+/**
+ * Utility class providing help methods to look up WMI (World Manufacturers Identification)
+ * and VDS (Vehicle Description Section) of vehicle identification number (VIN) in the bundled prefix data.
+ * <p>
+ * Prefixes are indexed once, on the first call, and looked up with binary search without allocation.
+ * Only first 10 chars of normalized VIN are used: WMI (0-2), VDS (3-7) and model year (9).
+ */
+public final class VinPrefixUtils {
+    /**
+     * Codes of model year in order of their bits in masks of {@link #getModelYearMask(CharSequence)}
+     */
+    public static final String MODEL_YEAR_CODES = VinPrefixTable.YEAR_CODES;
+
+    private static final int PREFIX_CHARS = VinPrefixTable.WMI_LENGTH + VinPrefixTable.VDS_LENGTH;
+
+    /**
+     * Bit of year code in year masks by base 33 digit, {@code 0} for digits which are not a year code
+     */
+    private static final int[] YEAR_BIT = new int[33];
+
+    static {
+        for (int digit = 0; digit < YEAR_BIT.length; digit++) {
+            final int index = MODEL_YEAR_CODES.indexOf(VinGeneratorUtils.ALLOWED_CHARS.charAt(digit));
+
+            YEAR_BIT[digit] = index >= 0 ? 1 << index : 0;
+        }
+    }
+
+    private VinPrefixUtils() {
+        throw new RuntimeException("Utility class should not be initialized");
+    }
+
+    /**
+     * Check whether WMI and VDS of VIN are known
+     *
+     * @param vin VIN to check
+     * @return {@code true} if WMI and VDS of VIN are in the prefix data
+     */
+    public static boolean isKnownPrefix(final CharSequence vin) {
+        return getModelYearMask(vin) != 0;
+    }
+
+    /**
+     * Check whether WMI and VDS of VIN are known together with its model year
+     *
+     * @param vin VIN to check
+     * @return {@code true} if WMI, VDS and model year of VIN are in the prefix data
+     */
+    public static boolean isKnownVin(final CharSequence vin) {
+        final long packed = VinCodec.packPrefix(vin, PREFIX_CHARS + 2);
+
+        if (packed < 0) {
+            return false;
+        }
+
+        final long prefix = packed / (33 * 33);
+
+        return (VinPrefixTable.getInstance().getYearMask(prefix) & YEAR_BIT[(int) (packed % 33)]) != 0;
+    }
+
+    /**
+     * Get model years, known for WMI and VDS of VIN
+     *
+     * @param vin VIN to look up
+     * @return bit mask of model year codes (bit {@code i} is set for code {@code MODEL_YEAR_CODES.charAt(i)}),
+     * {@code 0} if prefix of VIN is unknown
+     */
+    public static int getModelYearMask(final CharSequence vin) {
+        final long prefix = VinCodec.packPrefix(vin, PREFIX_CHARS);
+
+        return prefix < 0 ? 0 : VinPrefixTable.getInstance().getYearMask(prefix);
+    }
+
+    /**
+     * Convert mask of model years into year codes
+     *
+     * @param modelYearMask mask of {@link #getModelYearMask(CharSequence)}
+     * @return model year codes of the mask in order of {@link #MODEL_YEAR_CODES}
+     */
+    public static String getModelYearCodes(final int modelYearMask) {
+        final StringBuilder codes = new StringBuilder();
+
+        for (int i = 0; i < MODEL_YEAR_CODES.length(); i++) {
+            if ((modelYearMask & 1 << i) != 0) {
+                codes.append(MODEL_YEAR_CODES.charAt(i));
+            }
+        }
+
+        return codes.toString();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+/**
+ * VIN, rejected by {@link VinValidationProcessor}, with the result of its validation
+ */
+public final class VinReject {
+    private final CharSequence vin;
+    private final int result;
+
+    VinReject(final CharSequence vin,
+              final int result) {
+        this.vin = vin;
+        this.result = result;
+    }
+
+    /**
+     * @return rejected VIN, as it was provided for validation
+     */
+    public CharSequence getVin() {
+        return this.vin;
+    }
+
+    /**
+     * @return result of {@link VinValidatorUtils#getVinValidationResult(CharSequence)} for the VIN
+     */
+    public int getResult() {
+        return this.result;
+    }
+
+    /**
+     * @return status of the validation
+     */
+    public VinValidationStatus getStatus() {
+        return VinValidationStatus.of(this.result);
+    }
+
+    /**
+     * @return message, describing why the VIN was rejected
+     */
+    public String getMessage() {
+        return VinValidatorUtils.getValidationMessage(this.vin, this.result);
+    }
+
+    @Override
+    public String toString() {
+        return "VinReject{vin=" + this.vin + ", status=" + getStatus() + '}';
+    }
+}
@@ -0,0 +1,391 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of VIN validation: number of validations per {@link VinValidationStatus},
+ * number of illegal characters per position and an optional histogram of sampled latency.
+ * <p>
+ * Metrics are disabled by default, validation then only reads a single static field.
+ * After {@link #enable(int)} every validation of {@link VinValidatorUtils} (and so of the {@code @VIN} constraint)
+ * increments a {@link LongAdder}, so validating threads do not contend on counters.
+ * Every validation is passed to registered {@link VinValidationListener}'s.
+ * <p>
+ * Latency of every {@code latencySampleRate}-th (on average) validation is measured with {@link System#nanoTime()}
+ * and counted in buckets of powers of two: bucket {@code k} holds latencies in range {@code (2^(k-1), 2^k]},
+ * so percentiles are the inclusive upper bounds of buckets, latencies rounded up to a power of two.
+ */
+public final class VinValidationMetrics implements VinValidationMetricsMXBean {
+    /**
+     * Name of the MBean, registered with {@link #registerMBean()}
+     */
+    public static final String OBJECT_NAME = "de.kyrychenko.utils.vin:type=VinValidationMetrics";
+
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+    private static final VinValidationListener[] NO_LISTENERS = {};
+
+    /**
+     * Metrics, recorded by validation, {@code null} if metrics are disabled
+     */
+    static volatile VinValidationMetrics enabled;
+
+    private final int latencySampleRate;
+    private final LongAdder[] statusCounts = newAdders(VinValidationStatus.values().length);
+    private final LongAdder[] illegalCharacterCounts = newAdders(17);
+    private final LongAdder[] latencyCounts = newAdders(64);
+    private volatile VinValidationListener[] listeners = NO_LISTENERS;
+
+    private VinValidationMetrics(final int latencySampleRate) {
+        this.latencySampleRate = latencySampleRate;
+    }
+
+    /**
+     * Enable metrics without latency measurement, replacing previously enabled ones
+     *
+     * @return enabled metrics
+     */
+    public static VinValidationMetrics enable() {
+        return enable(0);
+    }
+
+    /**
+     * Enable metrics, replacing previously enabled ones
+     *
+     * @param latencySampleRate average number of validations per latency measurement,
+     *                          {@code 1} to measure every validation, {@code 0} to measure none
+     * @return enabled metrics
+     */
+    public static VinValidationMetrics enable(final int latencySampleRate) {
+        if (latencySampleRate < 0) {
+            throw new IllegalArgumentException("Sample rate should not be negative");
+        }
+
+        final VinValidationMetrics metrics = new VinValidationMetrics(latencySampleRate);
+        enabled = metrics;
+
+        return metrics;
+    }
+
+    /**
+     * Disable metrics. Counters of disabled metrics stay available.
+     */
+    public static void disable() {
+        enabled = null;
+    }
+
+    /**
+     * @return enabled metrics, {@code null} if metrics are disabled
+     */
+    public static VinValidationMetrics getEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Register these metrics in the platform {@link MBeanServer} as {@link #OBJECT_NAME},
+     * replacing previously registered ones
+     */
+    public void registerMBean() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Metrics could not be registered as " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Unregister metrics from the platform {@link MBeanServer}, if they are registered
+     */
+    public static void unregisterMBean() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Metrics could not be unregistered as " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * @param listener listener to call after every validation
+     */
+    public synchronized void addListener(final VinValidationListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener should not be null");
+        }
+
+        final VinValidationListener[] current = this.listeners;
+        final VinValidationListener[] next = new VinValidationListener[current.length + 1];
+
+        System.arraycopy(current, 0, next, 0, current.length);
+        next[current.length] = listener;
+        this.listeners = next;
+    }
+
+    /**
+     * @param listener previously added listener
+     */
+    public synchronized void removeListener(final VinValidationListener listener) {
+        final VinValidationListener[] current = this.listeners;
+
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                final VinValidationListener[] next = new VinValidationListener[current.length - 1];
+
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                this.listeners = next;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param status status of validation
+     * @return number of validations with the status
+     */
+    public long getCount(final VinValidationStatus status) {
+        return this.statusCounts[status.ordinal()].sum();
+    }
+
+    /**
+     * @param position position of char in normalized VIN, 0-16
+     * @return number of validations, failed with illegal character at the position
+     */
+    public long getIllegalCharacterCount(final int position) {
+        return this.illegalCharacterCounts[position].sum();
+    }
+
+    /**
+     * Get percentile of sampled latency
+     *
+     * @param percentile percentile in range (0, 100]
+     * @return latency in nanoseconds, rounded up to a power of two (a latency of exactly {@code 2^k} is {@code 2^k}),
+     * {@code 0} if no validation was sampled
+     */
+    public long getLatencyPercentileNanos(final double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile should be in range (0, 100]");
+        }
+
+        final long[] counts = new long[this.latencyCounts.length];
+        long total = 0;
+
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            counts[bucket] = this.latencyCounts[bucket].sum();
+            total += counts[bucket];
+        }
+
+        final long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+
+            if (seen >= rank && counts[bucket] > 0) {
+                return 1L << bucket;
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public long getValidationCount() {
+        long count = 0;
+
+        for (final LongAdder adder : this.statusCounts) {
+            count += adder.sum();
+        }
+
+        return count;
+    }
+
+    @Override
+    public long getValidCount() {
+        return getCount(VinValidationStatus.VALID);
+    }
+
+    @Override
+    public long getNullVinCount() {
+        return getCount(VinValidationStatus.NULL_VIN);
+    }
+
+    @Override
+    public long getInvalidLengthCount() {
+        return getCount(VinValidationStatus.INVALID_LENGTH);
+    }
+
+    @Override
+    public long getIllegalCharacterCount() {
+        return getCount(VinValidationStatus.ILLEGAL_CHARACTER);
+    }
+
+    @Override
+    public long getIllegalCheckDigitCount() {
+        return getCount(VinValidationStatus.ILLEGAL_CHECK_DIGIT);
+    }
+
+    @Override
+    public long getCheckDigitMismatchCount() {
+        return getCount(VinValidationStatus.CHECK_DIGIT_MISMATCH);
+    }
+
+    @Override
+    public long[] getIllegalCharacterCounts() {
+        final long[] counts = new long[this.illegalCharacterCounts.length];
+
+        for (int position = 0; position < counts.length; position++) {
+            counts[position] = this.illegalCharacterCounts[position].sum();
+        }
+
+        return counts;
+    }
+
+    @Override
+    public long getSampledValidationCount() {
+        long count = 0;
+
+        for (final LongAdder adder : this.latencyCounts) {
+            count += adder.sum();
+        }
+
+        return count;
+    }
+
+    @Override
+    public long getLatencyMedianNanos() {
+        return getLatencyPercentileNanos(50);
+    }
+
+    @Override
+    public long getLatency99thPercentileNanos() {
+        return getLatencyPercentileNanos(99);
+    }
+
+    @Override
+    public void reset() {
+        for (final LongAdder adder : this.statusCounts) {
+            adder.reset();
+        }
+
+        for (final LongAdder adder : this.illegalCharacterCounts) {
+            adder.reset();
+        }
+
+        for (final LongAdder adder : this.latencyCounts) {
+            adder.reset();
+        }
+    }
+
+    /**
+     * Start measurement of a validation
+     *
+     * @return start time to pass to {@link #record(int, long)}
+     */
+    long start() {
+        final int rate = this.latencySampleRate;
+
+        if (rate == 0 || rate > 1 && ThreadLocalRandom.current().nextInt(rate) != 0) {
+            return NOT_SAMPLED;
+        }
+
+        return System.nanoTime();
+    }
+
+    /**
+     * Record result of a validation
+     *
+     * @param result validation result code
+     * @param start  value of {@link #start()} before the validation
+     * @return the result
+     */
+    int record(final int result,
+               final long start) {
+        final long latency = start == NOT_SAMPLED ? -1 : Math.max(System.nanoTime() - start, 0);
+        final VinValidationStatus status = VinValidationStatus.of(result);
+
+        this.statusCounts[status.ordinal()].increment();
+
+        if (status == VinValidationStatus.ILLEGAL_CHARACTER) {
+            this.illegalCharacterCounts[VinValidatorUtils.getWrongCharPosition(result)].increment();
+        }
+
+        if (latency >= 0) {
+            recordLatency(latency);
+        }
+
+        for (final VinValidationListener listener : this.listeners) {
+            listener.onValidation(result, latency);
+        }
+
+        return result;
+    }
+
+    /**
+     * Record result of a validation without latency measurement
+     *
+     * @param result validation result code
+     * @return the result
+     */
+    int record(final int result) {
+        return record(result, NOT_SAMPLED);
+    }
+
+    /**
+     * Count sampled latency in the bucket of the next power of two, {@code 0} and {@code 1} in bucket {@code 0}
+     *
+     * @param latency non-negative latency in nanoseconds
+     */
+    void recordLatency(final long latency) {
+        this.latencyCounts[64 - Long.numberOfLeadingZeros(Math.max(latency - 1, 0))].increment();
+    }
+
+    private static LongAdder[] newAdders(final int count) {
+        final LongAdder[] adders = new LongAdder[count];
+
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+
+        return adders;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+/**
+ * JMX view of {@link VinValidationMetrics}, registered with {@link VinValidationMetrics#registerMBean()}
+ */
+public interface VinValidationMetricsMXBean {
+
+    /**
+     * @return number of all validations
+     */
+    long getValidationCount();
+
+    long getValidCount();
+
+    long getNullVinCount();
+
+    long getInvalidLengthCount();
+
+    long getIllegalCharacterCount();
+
+    long getIllegalCheckDigitCount();
+
+    long getCheckDigitMismatchCount();
+
+    /**
+     * @return number of illegal characters per position 0-16 of normalized VIN
+     */
+    long[] getIllegalCharacterCounts();
+
+    /**
+     * @return number of validations with measured latency
+     */
+    long getSampledValidationCount();
+
+    /**
+     * @return median of sampled latency in nanoseconds, rounded up to a power of two
+     */
+    long getLatencyMedianNanos();
+
+    /**
+     * @return 99th percentile of sampled latency in nanoseconds, rounded up to a power of two
+     */
+    long getLatency99thPercentileNanos();
+
+    /**
+     * Reset all counters
+     */
+    void reset();
+}
@@ -0,0 +1,379 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Processor of a stream of VIN's, validating them inline in a pipeline with backpressure
+ * and emitting valid VIN's and rejected ones ({@link VinReject}) to separate outputs.
+ * <p>
+ * The processor follows the protocol of reactive streams without depending on {@code java.util.concurrent.Flow},
+ * so it runs on Java 8: the upstream is connected with {@link #onSubscribe(LongConsumer, Runnable)}
+ * and pushes VIN's with {@link #onNext(CharSequence)}, every output is subscribed with
+ * {@link Output#subscribe(Consumer, Consumer, Runnable)} and pulls items with {@link Output#request(long)}.
+ * On Java 9+ {@code VinValidationFlowProcessor} adapts it to {@code Flow.Processor}.
+ * <p>
+ * VIN's are requested from the upstream in micro-batches of {@code batchSize}, only when the valid output has demand
+ * and outputs have room for a batch, and every batch is validated at once, when it is received completely
+ * or when the received part could satisfy pending demand of the valid output, so a slow upstream does not delay VIN's.
+ * So at most two batches are buffered and no thread is switched: VIN's are validated
+ * and emitted by the thread, calling {@link #onNext(CharSequence)} or {@link Output#request(long)}.
+ * Rejects are dropped while the reject output is not subscribed. Completion and error of the upstream
+ * are passed to outputs after all buffered items. Cancellation of the valid output cancels the upstream.
+ */
+public final class VinValidationProcessor {
+    private final CharSequence[] batch;
+    private final Output<String> valid = new Output<>();
+    private final Output<VinReject> rejects = new Output<>();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private LongConsumer upstreamRequest;
+    private Runnable upstreamCancel;
+    private int batchCount;
+    private long outstanding;
+    private boolean done;
+    private Throwable error;
+
+    /**
+     * @param batchSize number of VIN's requested from the upstream and validated at once
+     */
+    public VinValidationProcessor(final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size should be positive");
+        }
+
+        this.batch = new CharSequence[batchSize];
+    }
+
+    /**
+     * @return output of valid VIN's
+     */
+    public Output<String> getValid() {
+        return this.valid;
+    }
+
+    /**
+     * @return output of rejected VIN's
+     */
+    public Output<VinReject> getRejects() {
+        return this.rejects;
+    }
+
+    /**
+     * Connect the upstream
+     *
+     * @param request requests the number of VIN's from the upstream
+     * @param cancel  cancels the upstream
+     */
+    public void onSubscribe(final LongConsumer request,
+                            final Runnable cancel) {
+        synchronized (this) {
+            if (this.upstreamRequest != null) {
+                throw new IllegalStateException("Processor is already subscribed");
+            }
+
+            this.upstreamRequest = request;
+            this.upstreamCancel = cancel;
+        }
+
+        drain();
+    }
+
+    /**
+     * Receive VIN from the upstream
+     *
+     * @param vin VIN to validate
+     * @throws NullPointerException if VIN is {@code null}
+     */
+    public void onNext(final CharSequence vin) {
+        if (vin == null) {
+            throw new NullPointerException("VIN should not be null");
+        }
+
+        synchronized (this) {
+            if (this.done) {
+                return;
+            }
+
+            this.batch[this.batchCount++] = vin;
+            this.outstanding--;
+
+            // a partial batch is validated at once, when it could satisfy pending demand of the valid output
+            final long pending = this.valid.demand - this.valid.queue.size();
+
+            if (this.outstanding <= 0 || this.batchCount == this.batch.length
+                    || pending > 0 && this.batchCount >= pending) {
+                validateBatch();
+            }
+        }
+
+        drain();
+    }
+
+    /**
+     * Receive error of the upstream
+     *
+     * @param error error of the upstream
+     */
+    public void onError(final Throwable error) {
+        synchronized (this) {
+            validateBatch();
+            this.error = error;
+            this.done = true;
+        }
+
+        drain();
+    }
+
+    /**
+     * Receive completion of the upstream
+     */
+    public void onComplete() {
+        synchronized (this) {
+            validateBatch();
+            this.done = true;
+        }
+
+        drain();
+    }
+
+    private void validateBatch() {
+        for (int i = 0; i < this.batchCount; i++) {
+            final CharSequence vin = this.batch[i];
+            final int result = VinValidatorUtils.getVinValidationResult(vin);
+
+            if (VinValidationStatus.of(result) == VinValidationStatus.VALID) {
+                this.valid.queue.add(vin.toString());
+            } else if (this.rejects.isActive()) {
+                this.rejects.queue.add(new VinReject(vin, result));
+            }
+
+            this.batch[i] = null;
+        }
+
+        this.batchCount = 0;
+    }
+
+    /**
+     * Emit buffered items and request the next batch, serialized by the work-in-progress counter,
+     * so callbacks of subscribers are never called concurrently or recursively
+     */
+    private void drain() {
+        if (this.wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+
+        do {
+            emit(this.valid);
+            emit(this.rejects);
+            requestBatch();
+
+            missed = this.wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private <T> void emit(final Output<T> output) {
+        while (true) {
+            final T item;
+            final boolean terminate;
+
+            synchronized (this) {
+                if (!output.started || output.terminated) {
+                    return;
+                }
+
+                if (output.cancelled) {
+                    output.queue.clear();
+                    return;
+                }
+
+                terminate = this.done && output.queue.isEmpty();
+                item = !terminate && output.demand > 0 ? output.queue.poll() : null;
+
+                if (terminate) {
+                    output.terminated = true;
+                } else if (item == null) {
+                    return;
+                } else {
+                    output.demand--;
+                }
+            }
+
+            if (!terminate) {
+                output.onNext.accept(item);
+            } else if (this.error != null) {
+                output.onError.accept(this.error);
+                return;
+            } else {
+                output.onComplete.run();
+                return;
+            }
+        }
+    }
+
+    private void requestBatch() {
+        final LongConsumer request;
+        final Runnable cancel;
+
+        synchronized (this) {
+            if (this.upstreamRequest == null || this.done) {
+                return;
+            }
+
+            if (this.valid.cancelled) {
+                this.done = true;
+                cancel = this.upstreamCancel;
+                request = null;
+            } else if (this.outstanding <= 0
+                    && this.valid.demand > 0
+                    && this.valid.queue.size() < this.batch.length
+                    && this.rejects.queue.size() < this.batch.length) {
+                this.outstanding = this.batch.length;
+                request = this.upstreamRequest;
+                cancel = null;
+            } else {
+                return;
+            }
+        }
+
+        if (cancel != null) {
+            cancel.run();
+        } else {
+            request.accept(this.batch.length);
+        }
+    }
+
+    /**
+     * Output of the processor, supporting a single subscriber
+     *
+     * @param <T> type of items
+     */
+    public final class Output<T> {
+        private final Queue<T> queue = new ArrayDeque<>();
+        private Consumer<? super T> onNext;
+        private Consumer<? super Throwable> onError;
+        private Runnable onComplete;
+        private long demand;
+        private boolean cancelled;
+        private boolean started;
+        private boolean terminated;
+
+        private Output() {
+        }
+
+        /**
+         * Subscribe to the output. Items are emitted only after they are requested.
+         *
+         * @param onNext     receives items
+         * @param onError    receives error of the upstream
+         * @param onComplete is called on completion of the upstream
+         */
+        public void subscribe(final Consumer<? super T> onNext,
+                              final Consumer<? super Throwable> onError,
+                              final Runnable onComplete) {
+            if (!subscribe(onNext, onError, onComplete, () -> {
+            })) {
+                throw new IllegalStateException("Output is already subscribed");
+            }
+        }
+
+        /**
+         * Subscribe to the output, calling {@code onSubscribe} after the subscriber is registered
+         * and before any item or signal is emitted to it
+         *
+         * @param onNext      receives items
+         * @param onError     receives error of the upstream
+         * @param onComplete  is called on completion of the upstream
+         * @param onSubscribe is called once the subscriber is registered
+         * @return {@code true} if the subscriber is registered, {@code false} if the output is already subscribed
+         */
+        boolean subscribe(final Consumer<? super T> onNext,
+                          final Consumer<? super Throwable> onError,
+                          final Runnable onComplete,
+                          final Runnable onSubscribe) {
+            synchronized (VinValidationProcessor.this) {
+                if (this.onNext != null) {
+                    return false;
+                }
+
+                this.onError = onError;
+                this.onComplete = onComplete;
+                this.onNext = onNext;
+            }
+
+            onSubscribe.run();
+
+            synchronized (VinValidationProcessor.this) {
+                this.started = true;
+            }
+
+            drain();
+
+            return true;
+        }
+
+        /**
+         * Request items
+         *
+         * @param count number of items to emit additionally
+         */
+        public void request(final long count) {
+            if (count <= 0) {
+                throw new IllegalArgumentException("Number of requested items should be positive");
+            }
+
+            synchronized (VinValidationProcessor.this) {
+                // saturate at Long.MAX_VALUE, treated as unbounded demand
+                this.demand = this.demand + count < 0 ? Long.MAX_VALUE : this.demand + count;
+            }
+
+            drain();
+        }
+
+        /**
+         * Cancel the subscription: items are not emitted anymore.
+         * Cancellation of the valid output cancels the upstream.
+         */
+        public void cancel() {
+            synchronized (VinValidationProcessor.this) {
+                this.cancelled = true;
+                this.demand = 0;
+            }
+
+            drain();
+        }
+
+        private boolean isActive() {
+            return this.onNext != null && !this.cancelled;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+/**
+ * Status of VIN validation, packed together with the position of the wrong char
+ * into the result of {@link VinValidatorUtils#getVinValidationResult(CharSequence)}
+ */
+public enum VinValidationStatus {
+    /**
+     * VIN is valid
+     */
+    VALID,
+
+    /**
+     * VIN is {@code null}
+     */
+    NULL_VIN,
+
+    /**
+     * Length of VIN without additional characters differs from 17
+     */
+    INVALID_LENGTH,
+
+    /**
+     * VIN contains a char, which is not allowed in VIN (I, O or Q)
+     */
+    ILLEGAL_CHARACTER,
+
+    /**
+     * Char at position 8 is neither a digit nor 'X'
+     */
+    ILLEGAL_CHECK_DIGIT,
+
+    /**
+     * Check digit differs from the checksum of VIN
+     */
+    CHECK_DIGIT_MISMATCH;
+
+    private static final VinValidationStatus[] VALUES = values();
+
+    /**
+     * Get status of validation result
+     *
+     * @param result result of {@link VinValidatorUtils#getVinValidationResult(CharSequence)}
+     * @return status of the result
+     */
+    public static VinValidationStatus of(final int result) {
+        return VALUES[result & 0xFF];
+    }
+}
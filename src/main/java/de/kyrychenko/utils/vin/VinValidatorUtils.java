@@ -24,6 +24,10 @@
 
 package de.kyrychenko.utils.vin;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
 /**
  * Utility class providing help methods to validate vehicle identification number (VIN)
  * <p>
@@ -33,9 +37,52 @@ package de.kyrychenko.utils.vin;
  * <a href="https://introcs.cs.princeton.edu/java/31datatype/VIN.java.html">princeton university</a>
  */
 public final class VinValidatorUtils {
-    private static final int[] VIN_POSITION_WEIGHT = {8, 7, 6, 5, 4, 3, 2, 10, 0, 9, 8, 7, 6, 5, 4, 3, 2};
+    static final int[] VIN_POSITION_WEIGHT = {8, 7, 6, 5, 4, 3, 2, 10, 0, 9, 8, 7, 6, 5, 4, 3, 2};
     private static final int[] VIN_LETTER_VALUE = {1, 2, 3, 4, 5, 6, 7, 8, 0, 1, 2, 3, 4, 5, 0, 7, 0, 9, 2, 3, 4, 5, 6, 7, 8, 9};
 
+    /**
+     * Codes of ASCII chars, used by single-pass validation:
+     * value of char in checksum (0-9) or one of {@code SEPARATOR}, {@code ILLEGAL}, {@code SLOW_PATH}
+     */
+    private static final byte[] ASCII_CODE = new byte[128];
+    private static final byte SEPARATOR = -1;
+    private static final byte ILLEGAL = -2;
+    /**
+     * Char, which normalization depends on default locale ('i' is upper-cased to dotted 'I' in turkish locale)
+     */
+    private static final byte SLOW_PATH = -3;
+
+    /*
+     * Layout of the validation result: ordinal of VinValidationStatus in bits 0-7,
+     * position of the wrong char in bits 8-15, checksum in bits 16-23
+     * and flags of strict validation in bits 24-25, so the result tells which chars its position refers to
+     */
+    private static final int NOT_NORMALIZED = 1 << 24;
+    private static final int NO_SEPARATORS = 1 << 25;
+    private static final int VALID = VinValidationStatus.VALID.ordinal();
+    private static final int NULL_VIN = VinValidationStatus.NULL_VIN.ordinal();
+    private static final int INVALID_LENGTH = VinValidationStatus.INVALID_LENGTH.ordinal();
+    private static final int ILLEGAL_CHARACTER = VinValidationStatus.ILLEGAL_CHARACTER.ordinal();
+    private static final int ILLEGAL_CHECK_DIGIT = VinValidationStatus.ILLEGAL_CHECK_DIGIT.ordinal();
+    private static final int CHECK_DIGIT_MISMATCH = VinValidationStatus.CHECK_DIGIT_MISMATCH.ordinal();
+
+    static {
+        for (int c = 0; c < ASCII_CODE.length; c++) {
+            if (c >= '0' && c <= '9') {
+                ASCII_CODE[c] = (byte) (c - '0');
+            } else if (c >= 'A' && c <= 'Z') {
+                final int value = VIN_LETTER_VALUE[c - 'A'];
+
+                ASCII_CODE[c] = value == 0 ? ILLEGAL : (byte) value;
+                ASCII_CODE[c + 'a' - 'A'] = ASCII_CODE[c];
+            } else if (c < 'a' || c > 'z') {
+                ASCII_CODE[c] = SEPARATOR;
+            }
+        }
+
+        ASCII_CODE['i'] = SLOW_PATH;
+    }
+
     private VinValidatorUtils() {
         throw new RuntimeException("Utility class should not be initialized");
     }
@@ -48,11 +95,7 @@ public final class VinValidatorUtils {
      * @return {@code true} if specified parameter is a valid VIN, {@code false} otherwise
      */
     public static boolean isValidVin(final String vin) {
-        try {
-            return validateVin(vin);
-        } catch (InvalidVinException e) {
-            return false;
-        }
+        return status(getVinValidationResult(vin)) == VALID;
     }
 
     /**
@@ -63,15 +106,16 @@ public final class VinValidatorUtils {
      * @throws InvalidVinException if validation was failed
      */
     public static boolean validateVin(final String vin) throws InvalidVinException {
-        final String normalized = normalizeVin(vin);
-        final int sum = getVinCheckSum(normalized);
-        final char check = normalized.charAt(8);
+        final int result = getVinValidationResult(vin);
+        final int status = status(result);
 
-        if (check != 'X' && (check < '0' || check > '9')) {
-            throw new InvalidVinException(normalized, "Illegal check digit '" + check + "' for VIN '" + normalized + "'");
+        if (status == VALID) {
+            return true;
+        } else if (status == CHECK_DIGIT_MISMATCH) {
+            return false;
+        } else {
+            throw new InvalidVinException(vin, result);
         }
-
-        return (sum == 10 && check == 'X') || (sum == check - '0');
     }
 
     /**
@@ -82,30 +126,13 @@ public final class VinValidatorUtils {
      * @throws InvalidVinException if calculation was failed
      */
     public static int getVinCheckSum(final String vin) throws InvalidVinException {
-        final String normalized = normalizeVin(vin);
-
-        int sum = 0;
-
-        for (int i = 0; i < 17; i++) {
-            final char key = normalized.charAt(i);
-
-            int value = 0;
-            if (key >= 'A' && key <= 'Z') {
-                value = VIN_LETTER_VALUE[key - 'A'];
+        final int result = getVinValidationResult(vin);
 
-                if (value == 0) {
-                    throw new InvalidVinException(normalized, String.format("Illegal character '%s' in VIN '%s' at position %d", key, normalized, i));
-                }
-            } else if (key >= '0' && key <= '9') {
-                value = Character.getNumericValue(key);
-            } else {
-                throw new InvalidVinException(normalized, String.format("Illegal character '%s' in VIN '%s' at position %d", key, normalized, i));
-            }
-
-            sum += value * VIN_POSITION_WEIGHT[i];
+        if (!hasCheckSum(result)) {
+            throw new InvalidVinException(vin, result);
         }
 
-        return sum % 11;
+        return checkSum(result);
     }
 
     /**
@@ -125,17 +152,536 @@ public final class VinValidatorUtils {
         }
     }
 
-    private static String normalizeVin(final String vin) throws InvalidVinException {
+    /**
+     * Create a cache of validation results for services, validating the same VIN's over and over
+     *
+     * @param maxEntries maximal number of cached VIN's
+     * @return new cache
+     */
+    public static VinValidationCache cached(final int maxEntries) {
+        return new VinValidationCache(maxEntries);
+    }
+
+    /**
+     * Validate VIN without throwing of exceptions and allocation of memory.
+     * <p>
+     * The result is a primitive code, which holds {@link VinValidationStatus} of validation
+     * and position of the wrong char, available with {@link VinValidationStatus#of(int)}
+     * and {@link #getWrongCharPosition(int)}.
+     * Message, describing the result, could be built on demand with {@link #getValidationMessage(CharSequence, int)}.
+     * <p>
+     * Results of all validation methods are recorded by {@link VinValidationMetrics}, if they are enabled.
+     *
+     * @param vin a VIN to validate
+     * @return validation result code
+     */
+    public static int getVinValidationResult(final CharSequence vin) {
+        final VinValidationMetrics metrics = VinValidationMetrics.enabled;
+
+        if (metrics == null) {
+            return validate(vin);
+        }
+
+        final long start = metrics.start();
+
+        return metrics.record(validate(vin), start);
+    }
+
+    /**
+     * Validate VIN without exceptions and allocations, optionally without normalization of the VIN.
+     * <p>
+     * With {@code normalize} set to {@code false} lower-case letters are illegal characters instead of being upper-cased.
+     * With {@code allowSeparators} set to {@code false} every char except {@code A-Z}, {@code 0-9}
+     * (and {@code a-z}, if VIN is normalized) is an illegal character instead of being skipped.
+     * Both flags set to {@code false} accept only exactly 17 chars of VIN alphabet without any normalization.
+     * Chars out of ASCII are normalized as by {@link #getVinValidationResult(CharSequence)} only if both flags are set.
+     * <p>
+     * Position of the wrong char refers to the VIN as it was validated: without skipped separators
+     * and, if separators are not allowed, equal to index in the provided VIN.
+     * The result keeps the flags, so {@link #getValidationMessage(CharSequence, int)} describes the right char.
+     *
+     * @param vin             a VIN to validate
+     * @param normalize       whether lower-case letters are upper-cased
+     * @param allowSeparators whether chars, which are neither letters nor digits, are skipped
+     * @return validation result code, see {@link #getVinValidationResult(CharSequence)}
+     */
+    public static int getVinValidationResult(final CharSequence vin,
+                                             final boolean normalize,
+                                             final boolean allowSeparators) {
+        if (normalize && allowSeparators) {
+            return getVinValidationResult(vin);
+        }
+
+        final VinValidationMetrics metrics = VinValidationMetrics.enabled;
+
+        final int flags = (normalize ? 0 : NOT_NORMALIZED) | (allowSeparators ? 0 : NO_SEPARATORS);
+
+        if (metrics == null) {
+            return validate(vin, normalize, allowSeparators) | flags;
+        }
+
+        final long start = metrics.start();
+
+        return metrics.record(validate(vin, normalize, allowSeparators) | flags, start);
+    }
+
+    /**
+     * Validate US-ASCII encoded VIN without decoding it into {@link String}.
+     * <p>
+     * Bytes are normalized as {@link #normalizeVin(CharSequence)} does for ASCII chars
+     * in {@link java.util.Locale#ROOT}: letters are upper-cased, other bytes (also bytes out of ASCII) are skipped.
+     *
+     * @param vin    array with VIN
+     * @param offset index of the first byte of VIN
+     * @param length number of bytes of VIN
+     * @return validation result code, see {@link #getVinValidationResult(CharSequence)}
+     */
+    public static int getVinValidationResult(final byte[] vin,
+                                             final int offset,
+                                             final int length) {
+        checkBounds(vin.length, offset, length);
+
+        final VinValidationMetrics metrics = VinValidationMetrics.enabled;
+
+        if (metrics == null) {
+            return validate(vin, offset, length);
+        }
+
+        final long start = metrics.start();
+
+        return metrics.record(validate(vin, offset, length), start);
+    }
+
+    /**
+     * Validate US-ASCII encoded VIN at absolute index of the buffer (heap or direct),
+     * without changing the position. Bytes are normalized as in {@link #getVinValidationResult(byte[], int, int)}.
+     *
+     * @param vin    buffer with VIN
+     * @param offset absolute index of the first byte of VIN
+     * @param length number of bytes of VIN
+     * @return validation result code, see {@link #getVinValidationResult(CharSequence)}
+     */
+    public static int getVinValidationResult(final ByteBuffer vin,
+                                             final int offset,
+                                             final int length) {
+        checkBounds(vin.limit(), offset, length);
+
+        final VinValidationMetrics metrics = VinValidationMetrics.enabled;
+
+        if (metrics == null) {
+            return validate(vin, offset, length);
+        }
+
+        final long start = metrics.start();
+
+        return metrics.record(validate(vin, offset, length), start);
+    }
+
+    /**
+     * Check whether US-ASCII encoded VIN is a valid one
+     *
+     * @param vin    array with VIN
+     * @param offset index of the first byte of VIN
+     * @param length number of bytes of VIN
+     * @return {@code true} if specified bytes are a valid VIN, {@code false} otherwise
+     */
+    public static boolean isValidVin(final byte[] vin,
+                                     final int offset,
+                                     final int length) {
+        return status(getVinValidationResult(vin, offset, length)) == VALID;
+    }
+
+    /**
+     * Check whether US-ASCII encoded VIN at absolute index of the buffer is a valid one
+     *
+     * @param vin    buffer with VIN
+     * @param offset absolute index of the first byte of VIN
+     * @param length number of bytes of VIN
+     * @return {@code true} if specified bytes are a valid VIN, {@code false} otherwise
+     */
+    public static boolean isValidVin(final ByteBuffer vin,
+                                     final int offset,
+                                     final int length) {
+        return status(getVinValidationResult(vin, offset, length)) == VALID;
+    }
+
+    /**
+     * Calculate checksum of US-ASCII encoded VIN
+     *
+     * @param vin    array with VIN
+     * @param offset index of the first byte of VIN
+     * @param length number of bytes of VIN
+     * @return checksum of VIN
+     * @throws InvalidVinException if calculation was failed
+     */
+    public static int getVinCheckSum(final byte[] vin,
+                                     final int offset,
+                                     final int length) throws InvalidVinException {
+        final int result = getVinValidationResult(vin, offset, length);
+
+        if (!hasCheckSum(result)) {
+            throw new InvalidVinException(new String(vin, offset, length, StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT), result);
+        }
+
+        return checkSum(result);
+    }
+
+    /**
+     * Calculate checksum of US-ASCII encoded VIN at absolute index of the buffer
+     *
+     * @param vin    buffer with VIN
+     * @param offset absolute index of the first byte of VIN
+     * @param length number of bytes of VIN
+     * @return checksum of VIN
+     * @throws InvalidVinException if calculation was failed
+     */
+    public static int getVinCheckSum(final ByteBuffer vin,
+                                     final int offset,
+                                     final int length) throws InvalidVinException {
+        final int result = getVinValidationResult(vin, offset, length);
+
+        if (!hasCheckSum(result)) {
+            final byte[] bytes = new byte[length];
+
+            for (int i = 0; i < length; i++) {
+                bytes[i] = vin.get(offset + i);
+            }
+
+            throw new InvalidVinException(new String(bytes, StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT), result);
+        }
+
+        return checkSum(result);
+    }
+
+    /**
+     * Get position of the wrong char in normalized VIN
+     *
+     * @param result result of {@link #getVinValidationResult(CharSequence)}
+     * @return position of illegal char or check digit, {@code -1} if validation result has no wrong char
+     */
+    public static int getWrongCharPosition(final int result) {
+        final int status = status(result);
+
+        if (status == ILLEGAL_CHARACTER) {
+            return position(result);
+        } else if (status == ILLEGAL_CHECK_DIGIT || status == CHECK_DIGIT_MISMATCH) {
+            return 8;
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * Build message, describing the validation result
+     *
+     * @param vin    validated VIN
+     * @param result result of {@link #getVinValidationResult(CharSequence)} for the VIN
+     * @return description of the result
+     */
+    public static String getValidationMessage(final CharSequence vin,
+                                              final int result) {
+        final int status = status(result);
+
+        if (status == NULL_VIN) {
+            return "VIN should not be null";
+        }
+
+        final String normalized = getValidatedVin(vin, result);
+
+        if (status == INVALID_LENGTH) {
+            return "Length of VIN (without possible additional characters) should equal 17";
+        } else if (status == ILLEGAL_CHARACTER) {
+            final int position = position(result);
+
+            return String.format("Illegal character '%s' in VIN '%s' at position %d", normalized.charAt(position), normalized, position);
+        } else if (status == ILLEGAL_CHECK_DIGIT) {
+            return "Illegal check digit '" + normalized.charAt(8) + "' for VIN '" + normalized + "'";
+        } else if (status == CHECK_DIGIT_MISMATCH) {
+            return "Check digit '" + normalized.charAt(8) + "' does not match checksum of VIN '" + normalized + "'";
+        } else {
+            return "VIN '" + normalized + "' is valid";
+        }
+    }
+
+    /**
+     * Get VIN as it was validated: normalized or, for results of strict validation,
+     * the provided chars without skipped separators and with upper-cased letters, if they were normalized
+     *
+     * @param vin    validated VIN
+     * @param result result of validation of the VIN
+     * @return chars, positions of the result refer to, {@code null} if VIN is {@code null}
+     */
+    static String getValidatedVin(final CharSequence vin,
+                                  final int result) {
+        if ((result & (NOT_NORMALIZED | NO_SEPARATORS)) == 0 || vin == null) {
+            return normalizeVin(vin);
+        }
+
+        final boolean normalize = (result & NOT_NORMALIZED) == 0;
+        final boolean allowSeparators = (result & NO_SEPARATORS) == 0;
+        final StringBuilder validated = new StringBuilder(vin.length());
+
+        for (int i = 0; i < vin.length(); i++) {
+            final char key = vin.charAt(i);
+
+            if (allowSeparators && (key >= ASCII_CODE.length || ASCII_CODE[key] == SEPARATOR)) {
+                continue;
+            }
+
+            validated.append(normalize && key >= 'a' && key <= 'z' ? (char) (key - 'a' + 'A') : key);
+        }
+
+        return validated.toString();
+    }
+
+    /**
+     * @param key allowed upper-case char of VIN
+     * @return value of the char in checksum
+     */
+    static int getCharValue(final char key) {
+        return ASCII_CODE[key];
+    }
+
+    /**
+     * Calculate check digit of VIN, which contains only allowed upper-case chars
+     *
+     * @param vin    array with VIN, char at position 8 is ignored
+     * @param offset index of the first char of VIN
+     * @return check digit for the VIN
+     */
+    static char getCheckDigit(final char[] vin,
+                              final int offset) {
+        int sum = 0;
+
+        for (int i = 0; i < 17; i++) {
+            if (i != 8) {
+                sum += ASCII_CODE[vin[offset + i]] * VIN_POSITION_WEIGHT[i];
+            }
+        }
+
+        sum %= 11;
+
+        return sum == 10 ? 'X' : (char) (sum + '0');
+    }
+
+    /**
+     * Remove additional characters from VIN and convert it to upper case
+     *
+     * @param vin a VIN to normalize
+     * @return normalized VIN, {@code null} if VIN is {@code null}
+     */
+    static String normalizeVin(final CharSequence vin) {
+        return vin == null ? null : vin.toString().toUpperCase().replaceAll("[^A-Z0-9]", "");
+    }
+
+    /**
+     * Validate VIN in a single pass without allocations:
+     * case folding, skipping of separators and checksum calculation happen at once.
+     * <p>
+     * The result equals to validation of {@link #normalizeVin(CharSequence)}. If the VIN contains chars,
+     * which normalization is not a plain ASCII case folding, the VIN is normalized first.
+     *
+     * @param vin VIN to validate
+     * @return validation result, not recorded by {@link VinValidationMetrics}
+     */
+    static int validate(final CharSequence vin) {
+        if (vin == null) {
+            return NULL_VIN;
+        }
+
+        final int length = vin.length();
+        long state = 0;
+
+        for (int i = 0; i < length; i++) {
+            final char key = vin.charAt(i);
+            final int code = key < ASCII_CODE.length ? ASCII_CODE[key] : SLOW_PATH;
+
+            if (code == SLOW_PATH) {
+                return validate(normalizeVin(vin));
+            }
+
+            if (code != SEPARATOR) {
+                state = append(state, code, key);
+            }
+        }
+
+        return toResult(state);
+    }
+
+    /**
+     * Validate VIN in a single pass, optionally without case folding and skipping of separators
+     */
+    private static int validate(final CharSequence vin,
+                                final boolean normalize,
+                                final boolean allowSeparators) {
         if (vin == null) {
-            throw new InvalidVinException(null, "VIN should not be null");
+            return NULL_VIN;
+        }
+
+        final int length = vin.length();
+        long state = 0;
+
+        for (int i = 0; i < length; i++) {
+            final char key = vin.charAt(i);
+            int code = key < ASCII_CODE.length ? ASCII_CODE[key] : SEPARATOR;
+
+            if (code == SEPARATOR) {
+                if (allowSeparators) {
+                    continue;
+                }
+
+                code = ILLEGAL;
+            } else if (code == SLOW_PATH || !normalize && key >= 'a' && key <= 'z') {
+                code = ILLEGAL;
+            }
+
+            state = append(state, code, key);
+        }
+
+        return toResult(state);
+    }
+
+    private static int validate(final byte[] vin,
+                                final int offset,
+                                final int length) {
+        long state = 0;
+
+        for (int i = offset, end = offset + length; i < end; i++) {
+            final int key = vin[i] & 0xFF;
+            final int code = asciiCode(key);
+
+            if (code != SEPARATOR) {
+                state = append(state, code, key);
+            }
         }
 
-        final String normalized = vin.toUpperCase().replaceAll("[^A-Z0-9]", "");
+        return toResult(state);
+    }
+
+    private static int validate(final ByteBuffer vin,
+                                final int offset,
+                                final int length) {
+        if (vin.hasArray()) {
+            return validate(vin.array(), vin.arrayOffset() + offset, length);
+        }
+
+        long state = 0;
+
+        for (int i = offset, end = offset + length; i < end; i++) {
+            final int key = vin.get(i) & 0xFF;
+            final int code = asciiCode(key);
+
+            if (code != SEPARATOR) {
+                state = append(state, code, key);
+            }
+        }
+
+        return toResult(state);
+    }
+
+    /**
+     * Code of a byte of US-ASCII encoded VIN: bytes out of ASCII are separators
+     * and 'i' is upper-cased independently of locale
+     */
+    private static int asciiCode(final int key) {
+        if (key >= ASCII_CODE.length) {
+            return SEPARATOR;
+        }
+
+        final int code = ASCII_CODE[key];
+
+        return code == SLOW_PATH ? ILLEGAL : code;
+    }
+
+    /*
+     * Validation state is packed into a long: number of normalized chars (saturated at 18) in bits 0-7,
+     * weighted sum in bits 8-23, position of the first illegal char + 1 in bits 24-31
+     * and the check digit char in bits 32-47
+     */
+
+    /**
+     * Append a char of normalized VIN to the validation state
+     *
+     * @param state validation state
+     * @param code  code of the char from {@code ASCII_CODE}, except {@code SEPARATOR} and {@code SLOW_PATH}
+     * @param key   appended char
+     * @return new validation state
+     */
+    private static long append(final long state,
+                               final int code,
+                               final int key) {
+        final int position = (int) state & 0xFF;
 
-        if (normalized.length() != 17) {
-            throw new InvalidVinException(normalized, "Length of VIN (without possible additional characters) should equal 17");
+        if (position >= 17) {
+            return position == 17 ? state + 1 : state;
         }
 
-        return normalized;
+        long next = state + 1;
+
+        if (code == ILLEGAL) {
+            if ((state & 0xFF000000L) == 0) {
+                next |= (long) (position + 1) << 24;
+            }
+        } else {
+            next += (long) (code * VIN_POSITION_WEIGHT[position]) << 8;
+        }
+
+        if (position == 8) {
+            next |= (long) key << 32;
+        }
+
+        return next;
+    }
+
+    private static int toResult(final long state) {
+        if ((state & 0xFF) != 17) {
+            return INVALID_LENGTH;
+        }
+
+        final int illegalPosition = (int) (state >>> 24) & 0xFF;
+
+        if (illegalPosition > 0) {
+            return ILLEGAL_CHARACTER | (illegalPosition - 1) << 8;
+        }
+
+        final int sum = ((int) (state >>> 8) & 0xFFFF) % 11;
+        final int check = (int) (state >>> 32) & 0xFFFF;
+
+        final int status;
+        if (check == 'X' || check == 'x') {
+            status = sum == 10 ? VALID : CHECK_DIGIT_MISMATCH;
+        } else if (check >= '0' && check <= '9') {
+            status = sum == check - '0' ? VALID : CHECK_DIGIT_MISMATCH;
+        } else {
+            status = ILLEGAL_CHECK_DIGIT;
+        }
+
+        return status | sum << 16;
+    }
+
+    private static int status(final int result) {
+        return result & 0xFF;
+    }
+
+    private static int position(final int result) {
+        return (result >>> 8) & 0xFF;
+    }
+
+    private static int checkSum(final int result) {
+        return (result >>> 16) & 0xFF;
+    }
+
+    private static boolean hasCheckSum(final int result) {
+        final int status = status(result);
+
+        return status != NULL_VIN && status != INVALID_LENGTH && status != ILLEGAL_CHARACTER;
+    }
+
+    private static void checkBounds(final int size,
+                                    final int offset,
+                                    final int length) {
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length + ") is out of bounds for length " + size);
+        }
     }
-}
\ No newline at end of file
+}
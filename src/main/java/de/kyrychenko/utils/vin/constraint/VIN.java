@@ -41,7 +41,9 @@ import java.lang.annotation.Target;
  * which implements {@link javax.validation.ConstraintValidator}
  * for {@link VIN}-annotated items.
  * <p>
- * Validation occurs using {@link VinValidatorUtils#validateVin(String)}
+ * Validation occurs using {@link VinValidatorUtils#getVinValidationResult(CharSequence, boolean, boolean)}
+ * without exceptions. By default VIN is normalized: letters are upper-cased and additional characters are skipped.
+ * Strict mode ({@code normalize = false, allowSeparators = false}) accepts only 17 chars of VIN alphabet.
  */
 @Target({
         ElementType.TYPE,
@@ -62,4 +64,14 @@ public @interface VIN {
     Class<?>[] groups() default {};
 
     Class<? extends Payload>[] payload() default {};
+
+    /**
+     * @return whether lower-case letters are upper-cased, otherwise they are illegal characters
+     */
+    boolean normalize() default true;
+
+    /**
+     * @return whether characters, which are neither letters nor digits, are skipped, otherwise they are illegal characters
+     */
+    boolean allowSeparators() default true;
 }
\ No newline at end of file
@@ -24,7 +24,7 @@
 
 package de.kyrychenko.utils.vin.constraint;
 
-import de.kyrychenko.utils.vin.InvalidVinException;
+import de.kyrychenko.utils.vin.VinValidationStatus;
 import de.kyrychenko.utils.vin.VinValidatorUtils;
 
 import javax.validation.ConstraintValidator;
@@ -32,34 +32,66 @@ import javax.validation.ConstraintValidatorContext;
 
 /**
  * Class used to validate {@link VIN} constraint in a particular context.
+ * <p>
+ * Validation does not throw exceptions and message templates of violations are built once per kind of error
+ * (and per position of an illegal character), so an invalid VIN does not cost more than a valid one.
+ * Templates do not contain the validated value, which is available to the caller as invalid value of the violation.
  */
 public class VinValidator implements ConstraintValidator<VIN, String> {
+    private static final String MESSAGE_PREFIX = "Provided VIN is incorrect. ";
+
+    private static final String NULL_VIN_TEMPLATE = MESSAGE_PREFIX + "VIN should not be null";
+    private static final String INVALID_LENGTH_TEMPLATE = MESSAGE_PREFIX + "Length of VIN (without possible additional characters) should equal 17";
+    private static final String ILLEGAL_CHECK_DIGIT_TEMPLATE = MESSAGE_PREFIX + "Illegal check digit at position 8";
+    private static final String CHECK_DIGIT_MISMATCH_TEMPLATE = MESSAGE_PREFIX + "Check digit does not match checksum of VIN";
+    private static final String[] ILLEGAL_CHARACTER_TEMPLATES = new String[17];
+
+    static {
+        for (int position = 0; position < ILLEGAL_CHARACTER_TEMPLATES.length; position++) {
+            ILLEGAL_CHARACTER_TEMPLATES[position] = MESSAGE_PREFIX + "Illegal character at position " + position;
+        }
+    }
+
+    private boolean normalize = true;
+    private boolean allowSeparators = true;
+
     @Override
     public void initialize(final VIN constraintAnnotation) {
-        // do nothing
+        this.normalize = constraintAnnotation.normalize();
+        this.allowSeparators = constraintAnnotation.allowSeparators();
     }
 
     @Override
     public boolean isValid(final String value,
                            final ConstraintValidatorContext context) {
-        try {
-            return VinValidatorUtils.validateVin(value);
-        } catch (InvalidVinException e) {
-            String errorMessage = e.getMessage();
+        final int result = VinValidatorUtils.getVinValidationResult(value, this.normalize, this.allowSeparators);
+        final VinValidationStatus status = VinValidationStatus.of(result);
 
-            if (errorMessage == null || errorMessage.trim().length() == 0) {
-                errorMessage = "";
-            } else {
-                errorMessage = " " + errorMessage;
-            }
-
-            errorMessage = "Provided VIN '" + e.getWrongVin() + "' is incorrect." + errorMessage;
-            context
-                    .buildConstraintViolationWithTemplate(errorMessage)
-                    .addConstraintViolation()
-                    .disableDefaultConstraintViolation();
+        if (status == VinValidationStatus.VALID) {
+            return true;
         }
 
+        context.disableDefaultConstraintViolation();
+        context
+                .buildConstraintViolationWithTemplate(getMessageTemplate(status, result))
+                .addConstraintViolation();
+
         return false;
     }
-}
\ No newline at end of file
+
+    private static String getMessageTemplate(final VinValidationStatus status,
+                                             final int result) {
+        switch (status) {
+            case NULL_VIN:
+                return NULL_VIN_TEMPLATE;
+            case INVALID_LENGTH:
+                return INVALID_LENGTH_TEMPLATE;
+            case ILLEGAL_CHARACTER:
+                return ILLEGAL_CHARACTER_TEMPLATES[VinValidatorUtils.getWrongCharPosition(result)];
+            case ILLEGAL_CHECK_DIGIT:
+                return ILLEGAL_CHECK_DIGIT_TEMPLATE;
+            default:
+                return CHECK_DIGIT_MISMATCH_TEMPLATE;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import java.util.concurrent.Flow;
+
+/**
+ * {@link Flow.Processor} of VIN's, publishing valid VIN's and rejected ones
+ * with a separate publisher of {@link #getRejects()}. Adapter of {@link VinValidationProcessor},
+ * see it for batching and backpressure.
+ * <p>
+ * Available on Java 9+ from the multi-release jar.
+ */
+public final class VinValidationFlowProcessor implements Flow.Processor<CharSequence, String> {
+    private static final Flow.Subscription NO_SUBSCRIPTION = new Flow.Subscription() {
+        @Override
+        public void request(final long count) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final VinValidationProcessor processor;
+    private final Flow.Publisher<VinReject> rejects;
+
+    /**
+     * @param batchSize number of VIN's requested from the upstream and validated at once
+     */
+    public VinValidationFlowProcessor(final int batchSize) {
+        this.processor = new VinValidationProcessor(batchSize);
+        this.rejects = subscriber -> subscribe(this.processor.getRejects(), subscriber);
+    }
+
+    /**
+     * @return publisher of rejected VIN's, supporting a single subscriber
+     */
+    public Flow.Publisher<VinReject> getRejects() {
+        return this.rejects;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super String> subscriber) {
+        subscribe(this.processor.getValid(), subscriber);
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        this.processor.onSubscribe(subscription::request, subscription::cancel);
+    }
+
+    @Override
+    public void onNext(final CharSequence vin) {
+        this.processor.onNext(vin);
+    }
+
+    @Override
+    public void onError(final Throwable error) {
+        this.processor.onError(error);
+    }
+
+    @Override
+    public void onComplete() {
+        this.processor.onComplete();
+    }
+
+    private static <T> void subscribe(final VinValidationProcessor.Output<T> output,
+                                      final Flow.Subscriber<? super T> subscriber) {
+        final Flow.Subscription subscription = new Flow.Subscription() {
+            @Override
+            public void request(final long count) {
+                if (count <= 0) {
+                    subscriber.onError(new IllegalArgumentException("Number of requested items should be positive"));
+                    cancel();
+                    return;
+                }
+
+                output.request(count);
+            }
+
+            @Override
+            public void cancel() {
+                output.cancel();
+            }
+        };
+
+        // subscription is handed out only after registration, so a rejected subscriber could not affect the output
+        if (!output.subscribe(subscriber::onNext, subscriber::onError, subscriber::onComplete,
+                () -> subscriber.onSubscribe(subscription))) {
+            subscriber.onSubscribe(NO_SUBSCRIPTION);
+            subscriber.onError(new IllegalStateException("Publisher supports a single subscriber"));
+        }
+    }
+}
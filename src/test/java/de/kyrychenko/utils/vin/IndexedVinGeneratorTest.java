@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IndexedVinGeneratorTest {
+
+    @Test
+    public void shouldGenerateSameCorpusForSameSeed() {
+        final IndexedVinGenerator generator = new IndexedVinGenerator(42);
+        final IndexedVinGenerator sameSeed = new IndexedVinGenerator(42);
+        final IndexedVinGenerator otherSeed = new IndexedVinGenerator(43);
+
+        assertEquals(VinPrefixTable.getInstance().size() * VinGeneratorUtils.SERIAL_COUNT, generator.size());
+
+        for (long index = 0; index < 1000; index++) {
+            assertEquals(generator.get(index), sameSeed.get(index));
+        }
+
+        assertEquals(generator.get(generator.size() - 1), sameSeed.get(generator.size() - 1));
+        assertNotEquals(generator.get(0), otherSeed.get(0));
+    }
+
+    @Test
+    public void shouldGenerateValidVinsWithoutDuplicates() {
+        final IndexedVinGenerator generator = new IndexedVinGenerator(42);
+        final long from = 1_000_000_000_000L;
+        final List<String> vins = generator.getVins(from, from + 100_000).parallel().collect(Collectors.toList());
+        final Set<String> distinct = new HashSet<>(vins);
+
+        assertEquals("Indexes should be mapped to distinct VIN's", vins.size(), distinct.size());
+        assertEquals("Range should be ordered by index", generator.get(from + 500), vins.get(500));
+
+        for (final String vin : vins) {
+            assertTrue(vin + " should be valid", VinValidatorUtils.isValidVin(vin));
+        }
+    }
+
+    @Test
+    public void shouldPermuteWholeRange() {
+        for (final long size : new long[]{1, 2, 1000, 1 << 20}) {
+            final IndexedVinGenerator generator = new IndexedVinGenerator(7, size);
+            final boolean[] hit = new boolean[(int) size];
+
+            for (long index = 0; index < size; index++) {
+                final long permuted = generator.permute(index);
+
+                assertTrue("Position should be in range", permuted >= 0 && permuted < size);
+                assertFalse("Position should be hit once", hit[(int) permuted]);
+                hit[(int) permuted] = true;
+            }
+        }
+    }
+
+    @Test
+    public void shouldRejectIndexesOutOfCorpus() {
+        final IndexedVinGenerator generator = new IndexedVinGenerator(42);
+
+        try {
+            generator.get(generator.size());
+            fail("Index out of the corpus should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            generator.getVins(-1, 10);
+            fail("Range out of the corpus should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
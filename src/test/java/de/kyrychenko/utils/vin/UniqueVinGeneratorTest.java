@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UniqueVinGeneratorTest {
+
+    @Test
+    public void shouldGenerateUniqueCorrectVins() {
+        final UniqueVinGenerator generator = new UniqueVinGenerator();
+        final Set<String> vins = new HashSet<>();
+
+        for (int i = 0; i < 100000; i++) {
+            final String vin = generator.next();
+
+            assertTrue("VIN " + vin + " was generated, but validation failed.", VinValidatorUtils.isValidVin(vin));
+            assertTrue("VIN " + vin + " was generated twice.", vins.add(vin));
+        }
+
+        assertEquals("Wrong number of generated VIN's", 100000, generator.size());
+    }
+
+    @Test
+    public void shouldGenerateSameUniqueVinsForSameSeed() {
+        assertEquals("Different VIN's were generated for the same seed",
+                VinGeneratorUtils.getUniqueRandomVins(1000, new Random(42)).collect(Collectors.toList()),
+                VinGeneratorUtils.getUniqueRandomVins(1000, new Random(42)).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldGenerateUniqueVinsInParallelStream() {
+        final List<String> vins = VinGeneratorUtils.getUniqueRandomVins(100000).parallel()
+                .collect(Collectors.toList());
+
+        assertEquals("Wrong number of generated VIN's", 100000, vins.size());
+        assertEquals("VIN's were generated twice", 100000, new HashSet<>(vins).size());
+    }
+
+    @Test
+    public void shouldKeepValuesInLongSet() {
+        final VinLongSet set = new VinLongSet(0);
+
+        for (long i = 0; i < 100000; i++) {
+            assertTrue("Value " + i + " was not added", set.add(i * 31));
+        }
+
+        for (long i = 0; i < 100000; i++) {
+            assertTrue("Value " + i + " was lost", set.contains(i * 31));
+            assertFalse("Value " + i + " was added twice", set.add(i * 31));
+        }
+
+        assertEquals("Wrong size of set", 100000, set.size());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class VinBatchValidatorUtilsTest {
+    private static final String[] VINS = createVins(100003);
+
+    @Test
+    public void shouldValidateRecordsAsScalarValidation() {
+        final String chars = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcxyz -\u00DF";
+        final Random random = new Random(42);
+        final int count = 10000;
+        final byte[] records = new byte[3 + count * 17];
+
+        for (int i = 0; i < count; i++) {
+            VinGeneratorUtils.writeRandomVin(random, records, 3 + i * 17);
+
+            if (random.nextInt(4) == 0) {
+                records[3 + i * 17 + random.nextInt(17)] = (byte) chars.charAt(random.nextInt(chars.length()));
+            }
+        }
+
+        final int[] results = VinBatchValidatorUtils.getVinValidationResults(records, 3, count);
+
+        for (int i = 0; i < count; i++) {
+            assertEquals("Wrong result of record " + i,
+                    VinValidatorUtils.getVinValidationResult(records, 3 + i * 17, 17), results[i]);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldRejectRecordsOutOfArray() {
+        VinBatchValidatorUtils.getVinValidationResults(new byte[34], 1, 2);
+    }
+
+    @Test
+    public void shouldFindValidVins() {
+        final BitSet expected = new BitSet();
+
+        for (int i = 0; i < VINS.length; i++) {
+            if (VinValidatorUtils.isValidVin(VINS[i])) {
+                expected.set(i);
+            }
+        }
+
+        assertEquals("Wrong valid VIN's of array", expected, VinBatchValidatorUtils.getValidVins(VINS));
+        assertEquals("Wrong valid VIN's of array validated in parallel", expected, VinBatchValidatorUtils.getValidVins(VINS, ForkJoinPool.commonPool()));
+        assertEquals("Wrong valid VIN's of linked list", expected, VinBatchValidatorUtils.getValidVins(new LinkedList<>(Arrays.asList(VINS))));
+        assertEquals("Wrong valid VIN's of stream", expected, VinBatchValidatorUtils.getValidVins(Arrays.stream(VINS)));
+        assertEquals("Wrong valid VIN's of parallel stream", expected, VinBatchValidatorUtils.getValidVins(Arrays.stream(VINS).parallel()));
+    }
+
+    @Test
+    public void shouldReturnResultOfEveryVin() {
+        final int[] expected = new int[VINS.length];
+
+        for (int i = 0; i < VINS.length; i++) {
+            expected[i] = VinValidatorUtils.getVinValidationResult(VINS[i]);
+        }
+
+        assertArrayEquals("Wrong results of array", expected, VinBatchValidatorUtils.getVinValidationResults(VINS));
+        assertArrayEquals("Wrong results of array validated in parallel", expected, VinBatchValidatorUtils.getVinValidationResults(VINS, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    public void shouldValidateEmptyInput() {
+        assertEquals("Empty input should have no valid VIN's", new BitSet(), VinBatchValidatorUtils.getValidVins(new String[0], ForkJoinPool.commonPool()));
+        assertEquals("Empty input should have no results", 0, VinBatchValidatorUtils.getVinValidationResults(new String[0]).length);
+    }
+
+    private static String[] createVins(final int count) {
+        final Random random = new Random(42);
+        final String[] vins = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            final char[] vin = VinGeneratorUtils.getRandomVin().toCharArray();
+
+            if (random.nextInt(10) == 0) {
+                vin[random.nextInt(17)] = 'I';
+            } else if (random.nextInt(10) == 0) {
+                vin[8] = vin[8] == '0' ? '1' : '0';
+            }
+
+            vins[i] = new String(vin);
+        }
+
+        return vins;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VinBloomFilterTest {
+
+    @Test
+    public void shouldContainVinsWithConfiguredFalsePositiveRate() {
+        final List<String> vins = VinGeneratorUtils.getRandomVins(100_000, new Random(42)).collect(Collectors.toList());
+        final Set<String> added = new HashSet<>(vins);
+        final VinBloomFilter filter = VinBloomFilter.build(vins.parallelStream(), vins.size(), 0.01);
+
+        for (final String vin : vins) {
+            assertTrue("VIN of the filter should be found", filter.mightContain(vin));
+        }
+
+        assertTrue("Lookup should normalize VIN", filter.mightContain(vins.get(0).toLowerCase()));
+        assertFalse(filter.mightContain("2G1WB5E37E111056"));
+        assertFalse(filter.mightContain(null));
+
+        final Random random = new Random(7);
+        int falsePositives = 0;
+        int checked = 0;
+
+        while (checked < 100_000) {
+            final String vin = VinGeneratorUtils.getRandomVin(random);
+
+            if (!added.contains(vin)) {
+                checked++;
+
+                if (filter.mightContain(vin)) {
+                    falsePositives++;
+                }
+            }
+        }
+
+        assertTrue("False positive rate should be about 1%, but was " + falsePositives / 1000.0 + "%",
+                falsePositives < 1300);
+    }
+
+    @Test
+    public void shouldSerializeToBytes() {
+        final VinBloomFilter filter = VinBloomFilter.build(Stream.of("2G1WB5E37E1110567", "1M8GDM9AXKP042788"), 1000, 0.001);
+        final VinBloomFilter copy = VinBloomFilter.fromBytes(filter.toBytes());
+
+        assertEquals(filter.getBitCount(), copy.getBitCount());
+        assertEquals(filter.getHashCount(), copy.getHashCount());
+        assertArrayEquals(filter.toBytes(), copy.toBytes());
+        assertTrue(copy.mightContain("2G1-WB5E37E111056 7"));
+        assertTrue(copy.mightContain("1M8GDM9AXKP042788"));
+
+        try {
+            VinBloomFilter.fromBytes(new byte[100]);
+            fail("Bytes of another format should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnpackableVins() {
+        VinBloomFilter.build(Stream.of("2G1WB5E37E111O567"), 10, 0.01);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VinCodecTest {
+
+    @Test
+    public void shouldPackAndDecodeVin() {
+        final PackedVin packed = VinCodec.pack("2g1-wb5e37e1110567");
+
+        assertEquals("Wrong decoded VIN", "2G1WB5E37E1110567", packed.toString());
+        assertTrue("Packed VIN is correct, but validation failed.", packed.isValid());
+        assertEquals("Wrong packed VIN", packed, new PackedVin(VinCodec.packHigh("2G1WB5E37E1110567"), VinCodec.packLow("2G1WB5E37E1110567")));
+        assertEquals("Wrong smallest VIN", "00000000000000000", VinCodec.decode(0, 0));
+        assertEquals("Wrong largest VIN", "ZZZZZZZZZZZZZZZZZ", VinCodec.decode(VinCodec.HIGH_BOUND - 1, VinCodec.LOW_BOUND - 1));
+    }
+
+    @Test
+    public void shouldKeepOrderAndValidityOfVins() {
+        final Random random = new Random(42);
+        String previous = VinGeneratorUtils.getRandomVin(random);
+
+        for (int i = 0; i < 100000; i++) {
+            final char[] chars = VinGeneratorUtils.getRandomVin(random).toCharArray();
+
+            if (random.nextBoolean()) {
+                chars[random.nextInt(17)] = VinGeneratorUtils.ALLOWED_CHARS.charAt(random.nextInt(33));
+            }
+
+            final String vin = new String(chars);
+            final long high = VinCodec.packHigh(vin);
+            final int low = VinCodec.packLow(vin);
+
+            assertEquals("Wrong decoded VIN", vin, VinCodec.decode(high, low));
+            assertEquals("Wrong validity of packed VIN " + vin, VinValidatorUtils.isValidVin(vin), VinCodec.isValidVin(high, low));
+            assertEquals("Wrong order of " + vin + " and " + previous, Integer.signum(vin.compareTo(previous)),
+                    Integer.signum(VinCodec.compare(high, low, VinCodec.packHigh(previous), VinCodec.packLow(previous))));
+
+            previous = vin;
+        }
+    }
+
+    @Test
+    public void shouldDetectNotPackableVins() {
+        assertFalse("VIN with illegal char could not be packed", VinCodec.isPackable("2G1WB5E37EI110567"));
+        assertFalse("Too short VIN could not be packed", VinCodec.isPackable("2G1WB5E37E111056"));
+        assertTrue("VIN with wrong check digit could be packed", VinCodec.isPackable("2G1WB5E36E1110567"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnPackingOfIllegalChar() {
+        VinCodec.packHigh("2G1WB5E37E1110Q67");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnPackingOfTooLongVin() {
+        VinCodec.packLow("2G1WB5E37E11105671");
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VinCorrectionUtilsTest {
+
+    @Test
+    public void shouldReturnValidVin() {
+        assertEquals(Collections.singletonList("2G1WB5E37E1110567"), VinCorrectionUtils.getCorrections("2g1-wb5e37e1110567"));
+    }
+
+    @Test
+    public void shouldReplaceIllegalLetters() {
+        assertEquals(Collections.singletonList("2G1WB5E37E1110567"), VinCorrectionUtils.getCorrections("2G1WB5E37EI11O567"));
+        assertEquals(Collections.singletonList("2G1WB5E37E1110567"), VinCorrectionUtils.getCorrections("2G1WB5E37E111Q567"));
+    }
+
+    @Test
+    public void shouldCorrectCheckDigit() {
+        assertTrue(VinCorrectionUtils.getCorrections("2G1WB5E3AE1110567").contains("2G1WB5E37E1110567"));
+        assertTrue(VinCorrectionUtils.getCorrections("2G1WB5E36E1110567").contains("2G1WB5E37E1110567"));
+    }
+
+    @Test
+    public void shouldReturnOnlyValidCandidates() {
+        final List<String> corrections = VinCorrectionUtils.getCorrections("2G1WB5E37E1110568");
+
+        assertTrue(corrections.contains("2G1WB5E37E1110567"));
+
+        for (final String correction : corrections) {
+            assertTrue("Correction is invalid: " + correction, VinValidatorUtils.isValidVin(correction));
+        }
+    }
+
+    @Test
+    public void shouldNotCorrectWrongLength() {
+        assertTrue(VinCorrectionUtils.getCorrections("2G1WB5E37E111056").isEmpty());
+        assertTrue(VinCorrectionUtils.getCorrections("2G1WB5E37E11105678").isEmpty());
+        assertTrue(VinCorrectionUtils.getCorrections(null).isEmpty());
+    }
+
+    @Test
+    public void shouldFindOriginalOfSingleSubstitution() {
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 10000; i++) {
+            final String vin = VinGeneratorUtils.getRandomVin(random);
+            final char[] typo = vin.toCharArray();
+            final int position = random.nextInt(17);
+
+            typo[position] = VinGeneratorUtils.ALLOWED_CHARS.charAt(random.nextInt(33));
+
+            if (VinValidatorUtils.isValidVin(new String(typo))) {
+                // substitution by a char with the same value is not detectable by the check digit
+                continue;
+            }
+
+            final List<String> corrections = VinCorrectionUtils.getCorrections(new String(typo));
+
+            assertTrue("Original " + vin + " is not among corrections of " + new String(typo) + ": " + corrections,
+                    corrections.contains(vin));
+
+            for (final String correction : corrections) {
+                assertTrue("Correction is unknown: " + correction, VinPrefixUtils.isKnownVin(correction));
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class VinDecoderUtilsTest {
+
+    @Test
+    public void shouldDecodeModelYear() {
+        assertEquals(2014, VinDecoderUtils.getModelYear("2G1WB5E37E1110567"));
+        assertEquals(2003, VinDecoderUtils.getModelYear("1HGCM82633A004352"));
+        assertEquals(2003, VinDecoderUtils.getModelYear("1hgcm8-2633-a004352"));
+        assertEquals(1980, VinDecoderUtils.getModelYear("1HGCM826XAA004352"));
+        assertEquals(2039, VinDecoderUtils.getModelYear("1HGCM8A6X9A004352"));
+    }
+
+    @Test
+    public void shouldNotDecodeModelYearOfMalformedVin() {
+        assertEquals(-1, VinDecoderUtils.getModelYear("2G1WB5E37U1110567"));
+        assertEquals(-1, VinDecoderUtils.getModelYear("2G1WB5E3701110567"));
+        assertEquals(-1, VinDecoderUtils.getModelYear("2G1WB5E37E111056"));
+        assertEquals(-1, VinDecoderUtils.getModelYear("2G1WB5E37E11I0567"));
+        assertEquals(-1, VinDecoderUtils.getModelYear(null));
+    }
+
+    @Test
+    public void shouldDecodeAllYearCodes() {
+        for (int i = 0; i < VinPrefixUtils.MODEL_YEAR_CODES.length(); i++) {
+            final char code = VinPrefixUtils.MODEL_YEAR_CODES.charAt(i);
+
+            assertEquals(1980 + i, VinDecoderUtils.getModelYear("1HGCM826X" + code + "A004352"));
+            assertEquals(2010 + i, VinDecoderUtils.getModelYear("1HGCM8A6X" + code + "A004352"));
+        }
+    }
+
+    @Test
+    public void shouldDecodeModelYearOfPackedVin() {
+        final long high = VinCodec.packHigh("1HGCM82633A004352");
+
+        assertEquals(2003, VinDecoderUtils.getModelYear(high));
+        assertEquals('A', VinDecoderUtils.getPlantCode(high));
+    }
+
+    @Test
+    public void shouldGetPlantCode() {
+        assertEquals('1', VinDecoderUtils.getPlantCode("2G1WB5E37E1110567"));
+        assertEquals('A', VinDecoderUtils.getPlantCode("1hgcm82633a004352"));
+        assertEquals(0, VinDecoderUtils.getPlantCode("1HGCM82633A00435"));
+    }
+
+    @Test
+    public void shouldDecodeSerialNumber() {
+        assertEquals(110567, VinDecoderUtils.getSerialNumber("2G1WB5E37E1110567"));
+        assertEquals(4352, VinDecoderUtils.getSerialNumber("1HGCM82633A004352"));
+        assertEquals(-1, VinDecoderUtils.getSerialNumber("2G1WB5E37E11105A7"));
+        assertEquals(-1, VinDecoderUtils.getSerialNumber("2G1WB5E37E1A10567"));
+        assertEquals(-1, VinDecoderUtils.getSerialNumber("2G1WB5E37E111056"));
+        assertEquals(4352, VinDecoderUtils.getSerialNumber(VinCodec.packHigh("1HGCM82633A004352"), VinCodec.packLow("1HGCM82633A004352")));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+public class VinFileAnalyzerTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldAnalyzeNewlineDelimitedFile() throws IOException {
+        final Path file = this.folder.newFile().toPath();
+        Files.write(file, "1HGCM82633A004352\n\n2G1WB5E36E1110567\r\n2G1WB5E37EI110567\n2g1-wb5e37e1110567\n1HGCM82633A004352"
+                .getBytes(StandardCharsets.US_ASCII));
+
+        final VinFileAnalyzer.Report report = new VinFileAnalyzer().analyze(file);
+
+        assertEquals("Wrong number of lines", 5, report.getLineCount());
+        assertEquals("Wrong number of valid lines", 3, report.getCount(VinValidationStatus.VALID));
+        assertEquals(0.6, report.getValidityRate(), 1e-9);
+        assertEquals(2, report.getWmiCount("1HG"));
+        assertEquals(1, report.getWmiCount("2g1"));
+        assertEquals(0, report.getWmiCount("2GI"));
+        assertEquals(Arrays.asList("1HG", "2G1"), report.getWmis());
+        assertEquals(2, report.getModelYearCount(2003));
+        assertEquals(1, report.getModelYearCount(2014));
+        assertEquals(0, report.getModelYearCount(1900));
+    }
+
+    @Test
+    public void shouldMergeCountersOfChunks() throws IOException {
+        final Random random = new Random(42);
+        final StringBuilder lines = new StringBuilder();
+        final StringBuilder records = new StringBuilder();
+        final Map<String, Long> wmis = new HashMap<>();
+        final long[] years = new long[2040];
+        int valid = 0;
+
+        for (int i = 0; i < 10000; i++) {
+            final char[] vin = VinGeneratorUtils.getRandomVin(random).toCharArray();
+
+            if (random.nextInt(5) == 0) {
+                vin[random.nextInt(17)] = 'O';
+            } else {
+                valid++;
+                wmis.merge(new String(vin, 0, 3), 1L, Long::sum);
+                years[VinDecoderUtils.getModelYear(new String(vin))]++;
+            }
+
+            lines.append(vin).append('\n');
+            records.append(String.format("%06d", i)).append(vin).append("  \n");
+        }
+
+        final Path linesFile = this.folder.newFile().toPath();
+        final Path recordsFile = this.folder.newFile().toPath();
+        Files.write(linesFile, lines.toString().getBytes(StandardCharsets.US_ASCII));
+        Files.write(recordsFile, records.toString().getBytes(StandardCharsets.US_ASCII));
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (final VinFileAnalyzer.Report report : new VinFileAnalyzer.Report[]{
+                    new VinFileAnalyzer(0, 0, 4096).analyze(linesFile, pool),
+                    new VinFileAnalyzer(26, 6, 4096).analyze(recordsFile, pool)}) {
+                assertEquals("Wrong number of lines", 10000, report.getLineCount());
+                assertEquals("Wrong number of valid lines", valid, report.getCount(VinValidationStatus.VALID));
+                assertEquals("Wrong number of WMI's", wmis.size(), report.getWmis().size());
+
+                for (final Map.Entry<String, Long> wmi : wmis.entrySet()) {
+                    assertEquals("Wrong count of " + wmi.getKey(), wmi.getValue().longValue(), report.getWmiCount(wmi.getKey()));
+                }
+
+                for (int year = 1980; year < 2040; year++) {
+                    assertEquals("Wrong count of " + year, years[year], report.getModelYearCount(year));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectRecordsWithoutVin() {
+        new VinFileAnalyzer(20, 4);
+    }
+}
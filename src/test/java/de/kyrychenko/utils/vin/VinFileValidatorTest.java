@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VinFileValidatorTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldValidateNewlineDelimitedFile() throws IOException {
+        final Path file = this.folder.newFile().toPath();
+        Files.write(file, "2G1WB5E37E1110567\n\n2G1WB5E36E1110567\r\n2G1WB5E37EI110567\n2G1WB5E37E111056\n2g1-wb5e37e1110567"
+                .getBytes(StandardCharsets.US_ASCII));
+
+        final VinFileValidator.Report report = new VinFileValidator().validate(file);
+
+        assertEquals("Wrong number of lines", 5, report.getLineCount());
+        assertEquals("Wrong number of valid lines", 2, report.getCount(VinValidationStatus.VALID));
+        assertEquals("Wrong number of lines with wrong check digit", 1, report.getCount(VinValidationStatus.CHECK_DIGIT_MISMATCH));
+        assertEquals("Wrong number of lines with illegal char", 1, report.getCount(VinValidationStatus.ILLEGAL_CHARACTER));
+        assertEquals("Wrong number of lines with wrong length", 1, report.getCount(VinValidationStatus.INVALID_LENGTH));
+        assertArrayEquals("Wrong offsets of invalid lines", new long[]{19, 38, 56}, report.getInvalidLineOffsets());
+    }
+
+    @Test
+    public void shouldValidateColumnOfCsvFileInChunks() throws IOException {
+        final Random random = new Random(42);
+        final StringBuilder content = new StringBuilder("id;vin;model\n");
+        final List<Long> expectedOffsets = new ArrayList<>();
+        int valid = 0;
+
+        for (int i = 0; i < 10000; i++) {
+            final char[] vin = VinGeneratorUtils.getRandomVin().toCharArray();
+
+            if (random.nextInt(5) == 0) {
+                vin[random.nextInt(17)] = 'O';
+                expectedOffsets.add((long) content.length());
+            } else {
+                valid++;
+            }
+
+            content.append(i).append(";\"").append(vin).append("\";model ").append(i).append('\n');
+        }
+
+        final Path file = this.folder.newFile().toPath();
+        Files.write(file, content.toString().getBytes(StandardCharsets.US_ASCII));
+
+        final VinFileValidator.Report report = new VinFileValidator((byte) ';', 1, true, true, 4096).validate(file);
+
+        assertEquals("Wrong number of lines", 10000, report.getLineCount());
+        assertEquals("Wrong number of valid lines", valid, report.getCount(VinValidationStatus.VALID));
+        assertArrayEquals("Wrong offsets of invalid lines", expectedOffsets.stream().mapToLong(Long::longValue).toArray(), report.getInvalidLineOffsets());
+    }
+
+    @Test
+    public void shouldPassInvalidLinesToHandlerInOrder() throws IOException {
+        final StringBuilder content = new StringBuilder();
+        final List<Long> expectedOffsets = new ArrayList<>();
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 10000; i++) {
+            final char[] vin = VinGeneratorUtils.getRandomVin(random).toCharArray();
+
+            if (random.nextInt(5) == 0) {
+                vin[random.nextInt(17)] = 'O';
+                expectedOffsets.add((long) content.length());
+            }
+
+            content.append(vin).append('\n');
+        }
+
+        final Path file = this.folder.newFile().toPath();
+        Files.write(file, content.toString().getBytes(StandardCharsets.US_ASCII));
+
+        final List<Long> offsets = new ArrayList<>();
+        final ForkJoinPool pool = new ForkJoinPool(3);
+
+        try {
+            final VinFileValidator.Report report = new VinFileValidator((byte) ',', 0, false, false, 4096)
+                    .validate(file, pool, (offset, result) -> {
+                        assertEquals(VinValidationStatus.ILLEGAL_CHARACTER, VinValidationStatus.of(result));
+                        offsets.add(offset);
+                    });
+
+            assertEquals("Invalid lines should be passed in order of file", expectedOffsets, offsets);
+            assertEquals("Invalid lines should not be collected", 0, report.getInvalidLineOffsets().length);
+            assertEquals(10000, report.getLineCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldReportUsageOnWrongArguments() throws IOException {
+        final Path file = this.folder.newFile().toPath();
+        Files.write(file, "2G1WB5E37E1110567\n2G1WB5E36E1110567\n".getBytes(StandardCharsets.US_ASCII));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        assertEquals(2, VinFileValidator.run(new String[]{"--column=x", file.toString()}, new PrintStream(out), new PrintStream(err)));
+        assertTrue("Usage should be printed", err.toString().startsWith("Usage: "));
+
+        assertEquals(0, VinFileValidator.run(new String[]{file.toString()}, new PrintStream(out), new PrintStream(err)));
+        assertTrue("Invalid line should be printed", out.toString().startsWith("18\tCHECK_DIGIT_MISMATCH\nlines: 2\n"));
+    }
+}
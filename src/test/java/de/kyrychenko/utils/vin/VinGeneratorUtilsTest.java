@@ -26,6 +26,13 @@ package de.kyrychenko.utils.vin;
 
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class VinGeneratorUtilsTest {
@@ -36,4 +43,52 @@ public class VinGeneratorUtilsTest {
 
         assertTrue("VIN " + generated + " was generated, but validation failed.", VinValidatorUtils.validateVin(generated));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldGenerateSameVinsForSameSeed() throws InvalidVinException {
+        final Random first = new Random(42);
+        final Random second = new Random(42);
+
+        for (int i = 0; i < 1000; i++) {
+            final String generated = VinGeneratorUtils.getRandomVin(first);
+
+            assertEquals("Different VIN's were generated for the same seed", generated, VinGeneratorUtils.getRandomVin(second));
+            assertTrue("VIN " + generated + " was generated, but validation failed.", VinValidatorUtils.validateVin(generated));
+        }
+    }
+
+    @Test
+    public void shouldGenerateStreamOfCorrectVins() {
+        assertEquals("Wrong number of generated VIN's", 10000, VinGeneratorUtils.getRandomVins(10000)
+                .filter(VinValidatorUtils::isValidVin)
+                .count());
+        assertEquals("Wrong number of VIN's generated in parallel", 100000, VinGeneratorUtils.getRandomVins(100000)
+                .parallel()
+                .filter(VinValidatorUtils::isValidVin)
+                .count());
+        assertEquals("Different VIN's were generated for the same seed",
+                VinGeneratorUtils.getRandomVins(100, new Random(42)).collect(Collectors.toList()),
+                VinGeneratorUtils.getRandomVins(100, new Random(42)).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldWriteCorrectVins() throws IOException {
+        final byte[] bytes = new byte[20];
+        VinGeneratorUtils.writeRandomVin(bytes, 3);
+        assertTrue("VIN was written into array, but validation failed.", VinValidatorUtils.isValidVin(bytes, 3, 17));
+
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(34);
+        VinGeneratorUtils.writeRandomVin(buffer);
+        VinGeneratorUtils.writeRandomVin(buffer);
+        assertEquals("Position of buffer was not advanced", 34, buffer.position());
+        assertTrue("VIN was written into buffer, but validation failed.", VinValidatorUtils.isValidVin(buffer, 17, 17));
+
+        final StringBuilder builder = new StringBuilder("vin: ");
+        VinGeneratorUtils.appendRandomVin(builder);
+        assertTrue("VIN was appended, but validation failed.", VinValidatorUtils.isValidVin(builder.substring(5)));
+
+        final StringWriter writer = new StringWriter();
+        VinGeneratorUtils.appendRandomVin(new Random(42), writer);
+        assertEquals("Different VIN's were generated for the same seed", VinGeneratorUtils.getRandomVin(new Random(42)), writer.toString());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VinOffHeapMapTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldGetPutValues() {
+        final VinOffHeapMap map = VinOffHeapMap.allocate(1000);
+        final Random random = new Random(42);
+        final Map<String, Long> expected = new HashMap<>();
+
+        for (int i = 0; i < 1000; i++) {
+            final String vin = VinGeneratorUtils.getRandomVin(random);
+            assertEquals(!expected.containsKey(vin), map.put(vin, i));
+            expected.put(vin, (long) i);
+        }
+
+        final String vin = expected.keySet().iterator().next();
+        assertFalse("Put of existing VIN should replace its value", map.put(vin, -5));
+        expected.put(vin, -5L);
+
+        assertEquals(expected.size(), map.size());
+
+        for (final Map.Entry<String, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().longValue(), map.get(entry.getKey(), Long.MIN_VALUE));
+            assertTrue(map.containsKey(entry.getKey()));
+        }
+
+        assertEquals(-5, map.get(vin.toLowerCase(), Long.MIN_VALUE));
+        assertEquals(Long.MIN_VALUE, map.get("2G1WB5E37E111056", Long.MIN_VALUE));
+        assertFalse(map.containsKey(null));
+    }
+
+    @Test
+    public void shouldReopenMapFromFile() throws IOException {
+        final Path values = this.folder.newFile("vins.csv").toPath();
+        final Path file = this.folder.newFile("vins.map").toPath();
+
+        Files.write(values, Arrays.asList("2G1WB5E37E1110567,1", "", "1M8GDM9AXKP042788, 2", "2G1WB5E37E1110567,3"),
+                StandardCharsets.US_ASCII);
+
+        final VinOffHeapMap created = VinOffHeapMap.create(file, 10);
+        assertEquals(2, created.putAll(values, ','));
+        assertEquals("Entries should be aligned to 8 bytes",
+                VinOffHeapTable.HEADER_SIZE + created.capacity() * 24, Files.size(file));
+
+        final VinOffHeapMap opened = VinOffHeapMap.open(file, false);
+        assertEquals(2, opened.size());
+        assertEquals(3, opened.get("2G1WB5E37E1110567", 0));
+        assertEquals(2, opened.get("1M8GDM9AXKP042788", 0));
+    }
+
+    @Test
+    public void shouldNotTearReplacedValues() throws InterruptedException {
+        final VinOffHeapMap map = VinOffHeapMap.allocate(10);
+        final String vin = "2G1WB5E37E1110567";
+        final Thread writer = new Thread(() -> {
+            for (int i = 0; i < 1_000_000; i++) {
+                map.put(vin, (i & 1) == 0 ? -1L : 0L);
+            }
+        });
+
+        map.put(vin, 0L);
+        writer.start();
+
+        while (writer.isAlive()) {
+            final long value = map.get(vin, 1L);
+            assertTrue("Value should be read whole, but was " + value, value == 0L || value == -1L);
+        }
+
+        writer.join();
+    }
+
+    @Test
+    public void shouldRejectMalformedLines() throws IOException {
+        final Path values = this.folder.newFile("vins.csv").toPath();
+        final VinOffHeapMap map = VinOffHeapMap.allocate(10);
+
+        Files.write(values, Arrays.asList("2G1WB5E37E1110567,1", "1M8GDM9AXKP042788"), StandardCharsets.US_ASCII);
+
+        try {
+            map.putAll(values, ',');
+            fail("Line without value should be reported");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Line 2 "));
+        }
+
+        assertEquals(1, map.size());
+
+        try {
+            map.putAll(values, 'A');
+            fail("Delimiter, which is a char of VIN, should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VinOffHeapSetTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldContainAddedVins() {
+        final VinOffHeapSet set = VinOffHeapSet.allocate(1000);
+        final Random random = new Random(42);
+        final Set<String> added = new HashSet<>();
+
+        for (int i = 0; i < 1000; i++) {
+            final String vin = VinGeneratorUtils.getRandomVin(random);
+            assertEquals("Addition should report whether VIN is new", added.add(vin), set.add(vin));
+        }
+
+        assertEquals(added.size(), set.size());
+
+        for (final String vin : added) {
+            assertTrue("Added VIN should be in the set", set.contains(vin));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            final String vin = VinGeneratorUtils.getRandomVin(random);
+            assertEquals(added.contains(vin), set.contains(vin));
+        }
+
+        assertTrue("Lookup should normalize VIN", set.contains(added.iterator().next().toLowerCase()));
+        assertFalse(set.contains("2G1WB5E37E111056"));
+        assertFalse(set.contains(null));
+    }
+
+    @Test
+    public void shouldRejectInvalidVinsAndOverflow() {
+        final VinOffHeapSet set = VinOffHeapSet.allocate(1);
+
+        try {
+            set.add("2G1WB5E36E1110567");
+            fail("VIN with mismatching check digit should not be added");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        final Random random = new Random(42);
+
+        try {
+            for (int i = 0; i <= set.capacity(); i++) {
+                set.add(VinGeneratorUtils.getRandomVin(random));
+            }
+
+            fail("Full set should be reported");
+        } catch (IllegalStateException e) {
+            assertTrue(set.size() < set.capacity());
+        }
+    }
+
+    @Test
+    public void shouldReopenSetFromFile() throws IOException {
+        final Path vins = this.folder.newFile("vins.txt").toPath();
+        final Path file = this.folder.newFile("vins.set").toPath();
+        final List<String> lines = new ArrayList<>();
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 1000; i++) {
+            lines.add(VinGeneratorUtils.getRandomVin(random));
+        }
+
+        lines.add("");
+        Files.write(vins, lines, StandardCharsets.US_ASCII);
+
+        // more than 2^24 slots, so the file is mapped as several buffers
+        final VinOffHeapSet created = VinOffHeapSet.create(file, 13_000_000);
+        assertEquals(new HashSet<>(lines).size() - 1, created.addAll(vins));
+
+        final VinOffHeapSet opened = VinOffHeapSet.open(file, false);
+        assertEquals(created.size(), opened.size());
+
+        for (final String vin : lines.subList(0, 1000)) {
+            assertTrue("VIN should be in reopened set", opened.contains(vin));
+        }
+
+        try {
+            opened.add(lines.get(0));
+            fail("Set, opened read-only, should not be changed");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        final Path saved = this.folder.newFile("saved.set").toPath();
+        final VinOffHeapSet allocated = VinOffHeapSet.allocate(1000);
+        allocated.addAll(vins);
+        allocated.save(saved);
+
+        final VinOffHeapSet reopened = VinOffHeapSet.open(saved, true);
+        assertEquals(allocated.size(), reopened.size());
+        assertTrue(reopened.contains(lines.get(999)));
+        assertFalse(reopened.add(lines.get(999)));
+    }
+
+    @Test
+    public void shouldRejectFileOfAnotherFormat() throws IOException {
+        final Path file = this.folder.newFile("vins.map").toPath();
+        VinOffHeapMap.create(file, 10);
+
+        try {
+            VinOffHeapSet.open(file, false);
+            fail("File of a map should not be opened as a set");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VinPrefixFilterTest {
+
+    @Test
+    public void shouldGenerateVinsOfWmi() {
+        final VinPrefixFilter filter = VinPrefixFilter.byWmi("1hg");
+        final Random random = new Random(42);
+
+        assertEquals("Wrong number of rows of WMI", 736, filter.size());
+
+        for (int i = 0; i < 1000; i++) {
+            final String vin = VinGeneratorUtils.getRandomVin(filter, random);
+
+            assertTrue("Generated VIN has wrong WMI: " + vin, vin.startsWith("1HG"));
+            assertTrue("Generated VIN is invalid: " + vin, VinValidatorUtils.isValidVin(vin));
+            assertTrue("Generated VIN is unknown: " + vin, VinPrefixUtils.isKnownVin(vin));
+        }
+    }
+
+    @Test
+    public void shouldGenerateVinsOfPrefix() {
+        final VinPrefixFilter filter = VinPrefixFilter.byPrefix("137-DA833");
+
+        assertEquals("Wrong number of rows of prefix", 1, filter.size());
+
+        final String vin = VinGeneratorUtils.getRandomVin(filter);
+
+        assertTrue("Generated VIN has wrong prefix: " + vin, vin.startsWith("137DA833"));
+        assertEquals("Generated VIN has wrong model year: " + vin, 'T', vin.charAt(9));
+    }
+
+    @Test
+    public void shouldGenerateVinsOfModelYear() {
+        final VinPrefixFilter filter = VinPrefixFilter.byModelYear('T');
+
+        assertEquals("Wrong number of rows of model year", 1888, filter.size());
+        assertEquals("Wrong model years were generated", "T",
+                VinGeneratorUtils.getRandomVins(filter, 1000)
+                        .parallel()
+                        .map(vin -> vin.substring(9, 10))
+                        .distinct()
+                        .collect(Collectors.joining()));
+    }
+
+    @Test
+    public void shouldCoverAllRowsByModelYears() {
+        int size = 0;
+
+        for (final char yearCode : VinPrefixUtils.MODEL_YEAR_CODES.toCharArray()) {
+            try {
+                size += VinPrefixFilter.byModelYear(yearCode).size();
+            } catch (IllegalArgumentException e) {
+                // year code without prefixes
+            }
+        }
+
+        assertEquals("Rows of model years do not cover the table", VinPrefixTable.getInstance().size(), size);
+    }
+
+    @Test
+    public void shouldCoverFirstAndLastWmi() {
+        assertEquals("Wrong number of rows of first WMI", 55, VinPrefixFilter.byWmi("137").size());
+        assertTrue("Last WMI has no rows", VinPrefixFilter.byWmi("YV4").size() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownWmi() {
+        VinPrefixFilter.byWmi("ZZZ");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownPrefix() {
+        VinPrefixFilter.byPrefix("137DA834");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMalformedWmi() {
+        VinPrefixFilter.byWmi("1HGC");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectIllegalCharsOfPrefix() {
+        VinPrefixFilter.byPrefix("1HGCM82O");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownModelYear() {
+        VinPrefixFilter.byModelYear('U');
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VinPrefixTableTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldLoadAllRowsOfPrefixesFile() {
+        assertEquals("Wrong number of rows was loaded", 62177, VinPrefixTable.getInstance().size());
+    }
+
+    @Test
+    public void shouldCopyRowIntoVin() {
+        final VinPrefixTable prefixes = VinPrefixTable.getInstance();
+        final char[] vin = "_________________".toCharArray();
+
+        prefixes.copyTo(0, vin, 0);
+        assertEquals("First row was copied wrong", "137DA833_T_______", new String(vin));
+
+        prefixes.copyTo(prefixes.size() - 1, vin, 0);
+        assertEquals("Last row was copied wrong", "YV4SZ592_7_______", new String(vin));
+    }
+
+    @Test
+    public void shouldLoadSameTableFromBinaryAndTextFiles() throws IOException {
+        final VinPrefixTable binary = VinPrefixTable.getInstance();
+        final VinPrefixTable text;
+
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/" + VinPrefixTable.PREFIXES_FILE_NAME), StandardCharsets.US_ASCII))) {
+            text = VinPrefixTable.parse(reader);
+        }
+
+        assertSameRows(text, binary);
+    }
+
+    @Test
+    public void shouldReadWrittenTable() throws IOException {
+        final VinPrefixTable table = VinPrefixTable.getInstance();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        table.write(output);
+
+        assertSameRows(table, VinPrefixTable.read(new ByteArrayInputStream(output.toByteArray())));
+    }
+
+    @Test
+    public void shouldHaveDistinctRows() {
+        assertEquals("Rows of prefixes file should be distinct", -1, VinPrefixTable.getInstance().indexOfRepeatedRow());
+    }
+
+    @Test
+    public void shouldFailCompilationOfRepeatedRows() throws IOException {
+        final String text = "WMI   VDS     Year\n137   DA833   T\n137   DA843   T\n\n137   DA833   T\n";
+        final VinPrefixTable table = VinPrefixTable.parse(new BufferedReader(new StringReader(text)));
+
+        assertEquals("Wrong repeated row", 2, table.indexOfRepeatedRow());
+
+        final Path source = this.folder.newFile("vin-prefixes.txt").toPath();
+        final Path target = this.folder.getRoot().toPath().resolve("vin-prefixes.bin");
+        Files.write(source, text.getBytes(StandardCharsets.US_ASCII));
+
+        try {
+            VinPrefixCompiler.main(new String[]{source.toString(), target.toString()});
+            fail("Repeated row should fail compilation");
+        } catch (IOException e) {
+            assertTrue("Repeated row should be reported", e.getMessage().startsWith("Row 137 DA833 T is repeated"));
+        }
+
+        assertFalse("Binary file should not be written", Files.exists(target));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectUnknownBinaryFormat() throws IOException {
+        VinPrefixTable.read(new ByteArrayInputStream(new byte[]{'V', 'I', 'N', 'X', 0, 0, 0, 1}));
+    }
+
+    private static void assertSameRows(final VinPrefixTable expected,
+                                       final VinPrefixTable actual) {
+        assertEquals("Wrong number of rows", expected.size(), actual.size());
+
+        final char[] expectedVin = new char[17];
+        final char[] actualVin = new char[17];
+
+        for (int row = 0; row < expected.size(); row++) {
+            expected.copyTo(row, expectedVin, 0);
+            actual.copyTo(row, actualVin, 0);
+            assertEquals("Wrong row " + row, new String(expectedVin), new String(actualVin));
+
+            final long prefix = expected.getPrefix(row);
+            assertEquals("Wrong year mask of row " + row, expected.getYearMask(prefix), actual.getYearMask(prefix));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VinPrefixUtilsTest {
+
+    @Test
+    public void shouldFindKnownPrefix() {
+        assertTrue("Prefix of VIN is known, but was not found", VinPrefixUtils.isKnownPrefix("137da833-6t1234567"));
+        assertTrue("VIN is known, but was not found", VinPrefixUtils.isKnownVin("137DA8336T1234567"));
+        assertFalse("Model year of VIN is unknown, but was found", VinPrefixUtils.isKnownVin("137DA8336A1234567"));
+        assertEquals("Wrong model years of prefix", "T", VinPrefixUtils.getModelYearCodes(VinPrefixUtils.getModelYearMask("137DA833")));
+        assertEquals("Wrong model years of prefix", "67", VinPrefixUtils.getModelYearCodes(VinPrefixUtils.getModelYearMask("YV4SZ592")));
+    }
+
+    @Test
+    public void shouldNotFindUnknownPrefix() {
+        assertFalse("Prefix of VIN is unknown, but was found", VinPrefixUtils.isKnownPrefix("00000000000000000"));
+        assertFalse("Prefix with illegal char is unknown, but was found", VinPrefixUtils.isKnownPrefix("I37DA8336T1234567"));
+        assertFalse("Too short prefix is unknown, but was found", VinPrefixUtils.isKnownPrefix("137DA83"));
+        assertFalse("Prefix of null is unknown, but was found", VinPrefixUtils.isKnownPrefix(null));
+        assertEquals("Unknown prefix should have no model years", 0, VinPrefixUtils.getModelYearMask("00000000"));
+    }
+
+    @Test
+    public void shouldKnowAllGeneratedVins() {
+        for (int i = 0; i < 10000; i++) {
+            final String vin = VinGeneratorUtils.getRandomVin();
+
+            assertTrue("VIN " + vin + " was generated, but its prefix is unknown.", VinPrefixUtils.isKnownVin(vin));
+        }
+    }
+}
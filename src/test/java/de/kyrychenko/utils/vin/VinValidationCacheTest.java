@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VinValidationCacheTest {
+
+    @Test
+    public void shouldAnswerRepeatedVinsFromCache() throws InvalidVinException {
+        final VinValidationCache cache = VinValidatorUtils.cached(100);
+
+        assertTrue(cache.isValidVin("2G1WB5E37E1110567"));
+        assertTrue(cache.isValidVin("2g1-wb5e37e1110567"));
+        assertTrue(cache.validateVin("2G1WB5E37E1110567"));
+        assertFalse(cache.validateVin("2G1WB5E36E1110567"));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void shouldNotCacheUnpackableVins() {
+        final VinValidationCache cache = VinValidatorUtils.cached(100);
+
+        assertFalse(cache.isValidVin("2G1WB5E37E111056"));
+        assertFalse(cache.isValidVin("2G1WB5E37E111O567"));
+        assertFalse(cache.isValidVin(null));
+
+        try {
+            cache.validateVin("2G1WB5E3AE1110567");
+            fail("Illegal check digit should be reported");
+        } catch (InvalidVinException e) {
+            assertEquals(VinValidationStatus.ILLEGAL_CHECK_DIGIT, e.getStatus());
+        }
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldAgreeWithValidatorWhileEvicting() {
+        final VinValidationCache cache = VinValidatorUtils.cached(64);
+        final Random random = new Random(42);
+        final String[] vins = new String[256];
+
+        for (int i = 0; i < vins.length; i++) {
+            final char[] vin = VinGeneratorUtils.getRandomVin(random).toCharArray();
+
+            if (i % 3 == 0) {
+                vin[8] = vin[8] == '0' ? '1' : '0';
+            }
+
+            vins[i] = new String(vin);
+        }
+
+        for (int i = 0; i < 100000; i++) {
+            // skewed access, so some VIN's are hot
+            final String vin = vins[Math.min(random.nextInt(vins.length), random.nextInt(vins.length))];
+
+            assertEquals("Wrong result for " + vin,
+                    VinValidatorUtils.getVinValidationResult(vin), cache.getVinValidationResult(vin));
+        }
+
+        assertTrue("Cache should be bounded", cache.size() <= cache.getMaxEntries());
+        assertTrue("Hot VIN's should be answered from cache", cache.getHitCount() > 0);
+        assertEquals(100000, cache.getHitCount() + cache.getMissCount());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void shouldAgreeWithValidatorInManyThreads() throws Exception {
+        final VinValidationCache cache = VinValidatorUtils.cached(1000);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final Future<?>[] futures = new Future<?>[4];
+
+            for (int t = 0; t < futures.length; t++) {
+                final int seed = t;
+
+                futures[t] = executor.submit(() -> {
+                    final Random random = new Random(seed % 2);
+
+                    for (int i = 0; i < 20000; i++) {
+                        final String vin = VinGeneratorUtils.getRandomVin(random);
+
+                        assertEquals(VinValidatorUtils.getVinValidationResult(vin), cache.getVinValidationResult(vin));
+                    }
+                });
+            }
+
+            for (final Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue("Cache should be bounded", cache.size() <= cache.getMaxEntries());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectEmptyCache() {
+        VinValidatorUtils.cached(0);
+    }
+}
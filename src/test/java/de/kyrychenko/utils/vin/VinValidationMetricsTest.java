@@ -0,0 +1,180 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import de.kyrychenko.utils.vin.constraint.VIN;
+import de.kyrychenko.utils.vin.constraint.VinValidator;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VinValidationMetricsTest {
+
+    @After
+    public void disableMetrics() {
+        VinValidationMetrics.disable();
+        VinValidationMetrics.unregisterMBean();
+    }
+
+    @Test
+    public void shouldCountValidationsPerStatus() {
+        final VinValidationMetrics metrics = VinValidationMetrics.enable();
+
+        VinValidatorUtils.isValidVin("2G1WB5E37E1110567");
+        VinValidatorUtils.isValidVin("2G1WB5E36E1110567");
+        VinValidatorUtils.isValidVin("2G1WB5E37E111056");
+        VinValidatorUtils.isValidVin("2G1WB5E37E11105O7");
+        VinValidatorUtils.getVinValidationResult(null);
+        VinValidatorUtils.getVinValidationResult("2G1WB5E3AE1110567", false, false);
+        VinBatchValidatorUtils.getVinValidationResults("2G1WB5E37E11105672G1WB5E37EI110567".getBytes(), 0, 2);
+
+        assertEquals(8, metrics.getValidationCount());
+        assertEquals(2, metrics.getValidCount());
+        assertEquals(1, metrics.getCheckDigitMismatchCount());
+        assertEquals(1, metrics.getInvalidLengthCount());
+        assertEquals(2, metrics.getIllegalCharacterCount());
+        assertEquals(1, metrics.getNullVinCount());
+        assertEquals(1, metrics.getIllegalCheckDigitCount());
+        assertEquals(1, metrics.getIllegalCharacterCount(15));
+        assertEquals(1, metrics.getIllegalCharacterCount(10));
+        assertEquals("Latency should not be measured", 0, metrics.getSampledValidationCount());
+
+        metrics.reset();
+        assertEquals(0, metrics.getValidationCount());
+        assertArrayEquals(new long[17], metrics.getIllegalCharacterCounts());
+    }
+
+    @Test
+    public void shouldCountValidationsOfConstraint() throws NoSuchFieldException {
+        final VinValidationMetrics metrics = VinValidationMetrics.enable();
+        final VinValidator validator = new VinValidator();
+
+        validator.initialize(Vehicle.class.getDeclaredField("vin").getAnnotation(VIN.class));
+        validator.isValid("2G1WB5E37E1110567", null);
+
+        assertEquals(1, metrics.getValidCount());
+    }
+
+    @Test
+    public void shouldMeasureLatencyAndNotifyListeners() {
+        final VinValidationMetrics metrics = VinValidationMetrics.enable(1);
+        final AtomicInteger invalid = new AtomicInteger();
+        final VinValidationListener listener = (result, latency) -> {
+            assertTrue("Latency should be measured", latency >= 0);
+
+            if (VinValidationStatus.of(result) != VinValidationStatus.VALID) {
+                invalid.incrementAndGet();
+            }
+        };
+
+        metrics.addListener(listener);
+
+        for (int i = 0; i < 100; i++) {
+            VinValidatorUtils.isValidVin(i % 4 == 0 ? "2G1WB5E36E1110567" : "2G1WB5E37E1110567");
+        }
+
+        metrics.removeListener(listener);
+        VinValidatorUtils.isValidVin("2G1WB5E36E1110567");
+
+        assertEquals(25, invalid.get());
+        assertEquals(101, metrics.getSampledValidationCount());
+        assertTrue(metrics.getLatencyMedianNanos() > 0);
+        assertTrue(metrics.getLatency99thPercentileNanos() >= metrics.getLatencyMedianNanos());
+    }
+
+    @Test
+    public void shouldRoundLatencyUpToPowerOfTwo() {
+        final VinValidationMetrics metrics = VinValidationMetrics.enable(1);
+
+        metrics.recordLatency(1024);
+        assertEquals("Latency of a power of two should be reported as is", 1024, metrics.getLatencyMedianNanos());
+
+        metrics.recordLatency(1025);
+        metrics.recordLatency(1025);
+        assertEquals(2048, metrics.getLatencyMedianNanos());
+        assertEquals(3, metrics.getSampledValidationCount());
+
+        metrics.reset();
+        metrics.recordLatency(0);
+        assertEquals(1, metrics.getLatency99thPercentileNanos());
+    }
+
+    @Test
+    public void shouldNotCountDisabledMetrics() {
+        final VinValidationMetrics metrics = VinValidationMetrics.enable();
+
+        VinValidationMetrics.disable();
+        VinValidatorUtils.isValidVin("2G1WB5E37E1110567");
+
+        assertNull(VinValidationMetrics.getEnabled());
+        assertEquals(0, metrics.getValidationCount());
+    }
+
+    @Test
+    public void shouldNotCountPackingOfVins() {
+        final VinValidationMetrics metrics = VinValidationMetrics.enable();
+
+        VinCodec.isPackable("2G1WB5E37E1110567");
+        VinCodec.isPackable("2G1WB5E37EI110567");
+
+        try {
+            VinCodec.pack("2G1WB5E37E111056");
+            fail("Too short VIN should not be packed");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Length of VIN"));
+        }
+
+        assertEquals(0, metrics.getValidationCount());
+    }
+
+    @Test
+    public void shouldRegisterMBean() throws Exception {
+        final VinValidationMetrics metrics = VinValidationMetrics.enable();
+        final ObjectName name = new ObjectName(VinValidationMetrics.OBJECT_NAME);
+
+        metrics.registerMBean();
+        VinValidatorUtils.isValidVin("2G1WB5E37E1110567");
+
+        assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "ValidCount"));
+
+        VinValidationMetrics.unregisterMBean();
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    private static final class Vehicle {
+        @VIN
+        private String vin;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class VinValidationProcessorTest {
+    private static final String VALID_VIN = "2G1WB5E37E1110567";
+    private static final String WRONG_VIN = "2G1WB5E36E1110567";
+
+    private final List<Long> upstreamRequests = new ArrayList<>();
+    private final List<String> valid = new ArrayList<>();
+    private final List<VinReject> rejects = new ArrayList<>();
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    @Test
+    public void shouldRequestBatchesOnlyOnDemand() {
+        final VinValidationProcessor processor = subscribe(new VinValidationProcessor(4));
+
+        assertTrue("Nothing should be requested without demand", this.upstreamRequests.isEmpty());
+
+        processor.getValid().request(1);
+        assertEquals(1, this.upstreamRequests.size());
+        assertEquals(4L, (long) this.upstreamRequests.get(0));
+
+        processor.onNext(VALID_VIN);
+        assertEquals("Partial batch should be validated for pending demand", 1, this.valid.size());
+
+        processor.onNext(WRONG_VIN);
+        processor.onNext("2g1-wb5e37e1110567");
+        assertTrue("Incomplete batch should not be validated without demand", this.rejects.isEmpty());
+
+        processor.onNext("xyz");
+        assertEquals(1, this.valid.size());
+        assertEquals(2, this.rejects.size());
+        assertEquals(VinValidationStatus.CHECK_DIGIT_MISMATCH, this.rejects.get(0).getStatus());
+        assertEquals(VinValidationStatus.INVALID_LENGTH, this.rejects.get(1).getStatus());
+        assertEquals("Buffered valid VIN should be emitted first", 1, this.upstreamRequests.size());
+
+        processor.getValid().request(10);
+        assertEquals("2g1-wb5e37e1110567", this.valid.get(1));
+        assertEquals(2, this.upstreamRequests.size());
+
+        processor.onNext(VALID_VIN);
+        processor.onComplete();
+        assertEquals(3, this.valid.size());
+        assertTrue(this.completed.get());
+        assertNull(this.error.get());
+    }
+
+    @Test
+    public void shouldValidateRemainingItemsOnError() {
+        final VinValidationProcessor processor = new VinValidationProcessor(4);
+        final IllegalStateException failure = new IllegalStateException("upstream failed");
+
+        processor.onSubscribe(this.upstreamRequests::add, () -> {
+        });
+        processor.getValid().subscribe(this.valid::add, this.error::set, () -> this.completed.set(true));
+        processor.getValid().request(Long.MAX_VALUE);
+        processor.onNext(VALID_VIN);
+        processor.onError(failure);
+
+        assertEquals(1, this.valid.size());
+        assertSame(failure, this.error.get());
+        assertFalse("Output should not complete after error", this.completed.get());
+    }
+
+    @Test
+    public void shouldCancelUpstreamWithValidOutput() {
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final VinValidationProcessor processor = new VinValidationProcessor(2);
+
+        processor.onSubscribe(this.upstreamRequests::add, () -> cancelled.set(true));
+        processor.getValid().subscribe(this.valid::add, this.error::set, () -> this.completed.set(true));
+        processor.getValid().request(1);
+        processor.getValid().cancel();
+
+        assertTrue("Upstream should be cancelled", cancelled.get());
+
+        processor.onNext(VALID_VIN);
+        assertTrue("Nothing should be emitted after cancellation", this.valid.isEmpty());
+        assertNull(this.error.get());
+    }
+
+    @Test
+    public void shouldPassItemsOfSynchronousUpstream() {
+        final VinValidationProcessor processor = new VinValidationProcessor(8);
+        final int[] produced = {0};
+
+        processor.onSubscribe(count -> {
+            for (long i = 0; i < count && produced[0] < 100; i++) {
+                processor.onNext(produced[0]++ % 5 == 0 ? WRONG_VIN : VinGeneratorUtils.getRandomVin());
+            }
+
+            if (produced[0] == 100) {
+                processor.onComplete();
+            }
+        }, () -> {
+        });
+        processor.getRejects().subscribe(this.rejects::add, this.error::set, () -> {
+        });
+        processor.getRejects().request(Long.MAX_VALUE);
+        processor.getValid().subscribe(vin -> {
+            this.valid.add(vin);
+            processor.getValid().request(1);
+        }, this.error::set, () -> this.completed.set(true));
+        processor.getValid().request(1);
+
+        assertEquals(80, this.valid.size());
+        assertEquals(20, this.rejects.size());
+        assertTrue(this.completed.get());
+        assertNull(this.error.get());
+    }
+
+    @Test
+    public void shouldValidateItemsOfSlowUpstreamForPendingDemand() {
+        final VinValidationProcessor processor = subscribe(new VinValidationProcessor(100));
+
+        processor.getValid().request(3);
+        processor.onNext(WRONG_VIN);
+        processor.onNext(VALID_VIN);
+        processor.onNext(VALID_VIN);
+        assertEquals("Received VIN's should not wait for the rest of the batch", 2, this.valid.size());
+        assertEquals(1, this.rejects.size());
+
+        processor.onNext(VALID_VIN);
+        assertEquals(3, this.valid.size());
+        assertEquals(1, this.upstreamRequests.size());
+        assertNull(this.error.get());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldRejectNullVin() {
+        subscribe(new VinValidationProcessor(4)).onNext(null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectSecondSubscriber() {
+        final VinValidationProcessor processor = subscribe(new VinValidationProcessor(4));
+
+        processor.getValid().subscribe(vin -> {
+        }, error -> {
+        }, () -> {
+        });
+    }
+
+    private VinValidationProcessor subscribe(final VinValidationProcessor processor) {
+        processor.onSubscribe(this.upstreamRequests::add, () -> {
+        });
+        processor.getValid().subscribe(this.valid::add, this.error::set, () -> this.completed.set(true));
+        processor.getRejects().subscribe(this.rejects::add, this.error::set, () -> {
+        });
+        processor.getRejects().request(Long.MAX_VALUE);
+
+        return processor;
+    }
+}
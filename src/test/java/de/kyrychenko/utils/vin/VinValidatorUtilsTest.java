@@ -26,10 +26,21 @@ package de.kyrychenko.utils.vin;
 
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class VinValidatorUtilsTest {
     @Test
@@ -123,4 +134,318 @@ public class VinValidatorUtilsTest {
 
         assertTrue("VIN " + correctVin + " is correct, but validation failed.", VinValidatorUtils.isValidVin(correctVin));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldReturnValidationResultWithoutException() {
+        assertEquals(VinValidationStatus.VALID, VinValidationStatus.of(VinValidatorUtils.getVinValidationResult("2G1WB5E37E1110567")));
+        assertEquals(VinValidationStatus.NULL_VIN, VinValidationStatus.of(VinValidatorUtils.getVinValidationResult(null)));
+        assertEquals(VinValidationStatus.INVALID_LENGTH, VinValidationStatus.of(VinValidatorUtils.getVinValidationResult("2G1WB5E37E11105673")));
+        assertEquals(VinValidationStatus.ILLEGAL_CHECK_DIGIT, VinValidationStatus.of(VinValidatorUtils.getVinValidationResult("2G1WB5E3AE1110567")));
+        assertEquals(VinValidationStatus.CHECK_DIGIT_MISMATCH, VinValidationStatus.of(VinValidatorUtils.getVinValidationResult("2G1WB5E36E1110567")));
+
+        final int result = VinValidatorUtils.getVinValidationResult(new StringBuilder("2g1-wb5e37eI110567"));
+
+        assertEquals(VinValidationStatus.ILLEGAL_CHARACTER, VinValidationStatus.of(result));
+        assertEquals("Wrong position of illegal character", 10, VinValidatorUtils.getWrongCharPosition(result));
+        assertEquals("Illegal character 'I' in VIN '2G1WB5E37EI110567' at position 10",
+                VinValidatorUtils.getValidationMessage("2g1-wb5e37eI110567", result));
+    }
+
+    @Test
+    public void shouldThrowStacklessExceptionWrappingValidationResult() {
+        try {
+            VinValidatorUtils.validateVin("2g1wb5e37eI110567");
+        } catch (InvalidVinException e) {
+            assertEquals("Stack trace should not be filled", 0, e.getStackTrace().length);
+            assertEquals(VinValidationStatus.ILLEGAL_CHARACTER, e.getStatus());
+            assertEquals(VinValidatorUtils.getVinValidationResult("2g1wb5e37eI110567"), e.getResult());
+            assertEquals("Wrong VIN in exception should be normalized", "2G1WB5E37EI110567", e.getWrongVin());
+            return;
+        }
+
+        fail("Exception was not thrown");
+    }
+
+    @Test
+    public void shouldValidateAsciiBytes() throws InvalidVinException {
+        final byte[] record = "XX2g1-wb5e37e1110567XX".getBytes(StandardCharsets.US_ASCII);
+        final ByteBuffer direct = ByteBuffer.allocateDirect(record.length);
+        direct.put(record);
+
+        assertTrue("VIN in byte array is correct, but validation failed.", VinValidatorUtils.isValidVin(record, 2, 18));
+        assertTrue("VIN in heap buffer is correct, but validation failed.", VinValidatorUtils.isValidVin(ByteBuffer.wrap(record), 2, 18));
+        assertTrue("VIN in direct buffer is correct, but validation failed.", VinValidatorUtils.isValidVin(direct, 2, 18));
+        assertFalse("Wrong VIN in byte array is provided, but validation succeed.", VinValidatorUtils.isValidVin(record, 0, 20));
+        assertEquals("Wrong checksum of VIN in byte array", 7, VinValidatorUtils.getVinCheckSum(record, 2, 18));
+        assertEquals("Wrong checksum of VIN in direct buffer", 7, VinValidatorUtils.getVinCheckSum(direct, 2, 18));
+    }
+
+    @Test
+    public void shouldAgreeWithStringValidationOnRandomBytes() {
+        final Random random = new Random(42);
+        final byte[] bytes = new byte[24];
+        final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+
+        for (int i = 0; i < 100000; i++) {
+            for (int j = 0; j < bytes.length; j++) {
+                bytes[j] = (byte) (random.nextInt(4) == 0 ? random.nextInt(256) : "0123456789ABCDEFGHJKLMNPRSTUVWXYZabcdefghijklmnopqrstuvwxyz".charAt(random.nextInt(59)));
+            }
+
+            direct.clear();
+            direct.put(bytes);
+
+            final int offset = random.nextInt(4);
+            final int length = 15 + random.nextInt(5);
+            final int expected = VinValidatorUtils.getVinValidationResult(new String(bytes, offset, length, StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT));
+
+            assertEquals("Wrong result of byte array", expected, VinValidatorUtils.getVinValidationResult(bytes, offset, length));
+            assertEquals("Wrong result of heap buffer", expected, VinValidatorUtils.getVinValidationResult(ByteBuffer.wrap(bytes), offset, length));
+            assertEquals("Wrong result of direct buffer", expected, VinValidatorUtils.getVinValidationResult(direct, offset, length));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldFailOnBytesOutOfBounds() {
+        VinValidatorUtils.getVinValidationResult(new byte[17], 1, 17);
+    }
+
+    @Test
+    public void shouldValidateWithoutNormalization() {
+        assertEquals(VinValidationStatus.VALID,
+                VinValidationStatus.of(VinValidatorUtils.getVinValidationResult("2G1-WB5E37E1110567", false, true)));
+
+        final int lowerCase = VinValidatorUtils.getVinValidationResult("2g1WB5E37E1110567", false, true);
+        assertEquals(VinValidationStatus.ILLEGAL_CHARACTER, VinValidationStatus.of(lowerCase));
+        assertEquals(1, VinValidatorUtils.getWrongCharPosition(lowerCase));
+    }
+
+    @Test
+    public void shouldValidateWithoutSeparators() {
+        assertEquals(VinValidationStatus.VALID,
+                VinValidationStatus.of(VinValidatorUtils.getVinValidationResult("2g1wb5e37e1110567", true, false)));
+
+        final int separator = VinValidatorUtils.getVinValidationResult("2G1-WB5E37E111056", true, false);
+        assertEquals(VinValidationStatus.ILLEGAL_CHARACTER, VinValidationStatus.of(separator));
+        assertEquals(3, VinValidatorUtils.getWrongCharPosition(separator));
+
+        assertEquals(VinValidationStatus.INVALID_LENGTH,
+                VinValidationStatus.of(VinValidatorUtils.getVinValidationResult("2G1-WB5E37E1110567", true, false)));
+        assertEquals(VinValidationStatus.ILLEGAL_CHARACTER,
+                VinValidationStatus.of(VinValidatorUtils.getVinValidationResult("2G1WB5E37E111056\u00DF", true, false)));
+    }
+
+    @Test
+    public void shouldValidateStrictly() {
+        assertEquals(VinValidationStatus.VALID,
+                VinValidationStatus.of(VinValidatorUtils.getVinValidationResult("2G1WB5E37E1110567", false, false)));
+        assertEquals(VinValidationStatus.CHECK_DIGIT_MISMATCH,
+                VinValidationStatus.of(VinValidatorUtils.getVinValidationResult("2G1WB5E36E1110567", false, false)));
+        assertEquals(VinValidationStatus.NULL_VIN,
+                VinValidationStatus.of(VinValidatorUtils.getVinValidationResult(null, false, false)));
+
+        final int space = VinValidatorUtils.getVinValidationResult("2G1WB5E37E111056 ", false, false);
+        assertEquals(VinValidationStatus.ILLEGAL_CHARACTER, VinValidationStatus.of(space));
+        assertEquals(16, VinValidatorUtils.getWrongCharPosition(space));
+    }
+
+    @Test
+    public void shouldDescribeResultsOfStrictValidationByProvidedChars() {
+        final int trailing = VinValidatorUtils.getVinValidationResult("1234567890123456_", false, false);
+        assertEquals("Illegal character '_' in VIN '1234567890123456_' at position 16",
+                VinValidatorUtils.getValidationMessage("1234567890123456_", trailing));
+
+        final int separator = VinValidatorUtils.getVinValidationResult("1M8GDM9A_KP042788", false, false);
+        assertEquals("Illegal character '_' in VIN '1M8GDM9A_KP042788' at position 8",
+                VinValidatorUtils.getValidationMessage("1M8GDM9A_KP042788", separator));
+
+        final InvalidVinException exception = new InvalidVinException("1M8GDM9A_KP042788", separator);
+        assertEquals("1M8GDM9A_KP042788", exception.getWrongVin());
+        assertEquals("Illegal character '_' in VIN '1M8GDM9A_KP042788' at position 8", exception.getMessage());
+
+        final int lowerCase = VinValidatorUtils.getVinValidationResult("1m8-GDM9AXKP042788", false, true);
+        assertEquals("Illegal character 'm' in VIN '1m8GDM9AXKP042788' at position 1",
+                VinValidatorUtils.getValidationMessage("1m8-GDM9AXKP042788", lowerCase));
+    }
+
+    @Test
+    public void shouldSerializeExceptionOfValidationResult() throws IOException, ClassNotFoundException {
+        final String vin = "2g1-wb5e36e1110567";
+        final InvalidVinException exception = new InvalidVinException(vin, VinValidatorUtils.getVinValidationResult(vin));
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (final ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(exception);
+        }
+
+        try (final ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final InvalidVinException copy = (InvalidVinException) input.readObject();
+
+            assertEquals(VinValidationStatus.CHECK_DIGIT_MISMATCH, copy.getStatus());
+            assertEquals("2G1WB5E36E1110567", copy.getWrongVin());
+            assertEquals("Check digit '6' does not match checksum of VIN '2G1WB5E36E1110567'", copy.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldAgreeWithDefaultValidationWhenNormalizingWithSeparators() {
+        for (final String vin : new String[]{"2G1WB5E37E1110567", "2g1-wb5e37e1110567", "2G1WB5E3XE1110567", "xyz", null}) {
+            assertEquals("Wrong result for " + vin,
+                    VinValidatorUtils.getVinValidationResult(vin),
+                    VinValidatorUtils.getVinValidationResult(vin, true, true));
+        }
+    }
+
+    @Test
+    public void shouldAgreeWithNormalizingValidationOnKnownInputs() {
+        final String[] vins = {
+                "2G1WB5E37E1110567", "2g1wb5e37e1110567", "2G1-WB5E3 7 E-1-110567", "2G1WB5E36E1110567",
+                "2G1WB5E3XE1110567", "2G1WB5E3AE1110567", "2G1WB5EA7E1110567", "2G1WB5EI7E1110567", "2G1WB5E37EI110567",
+                "2G1WB5E37E11105673", "2G1WB5E37E111056", "", "     ", "xyz", "ABCDEFGHJKLMNPRST",
+                "2G1WB5E37E1110567\u00DF", "2G1WB5E37E11105\u00DF", "2G1WB5E37E111056\u0131", "2G1WB5E37E111056\u017F",
+                "2G1WB5E37E1110567\u00E9", "2G1WB5E37E1110567i", "2g1wb5e3xe1110567", "1M8GDM9AXKP042788", null
+        };
+
+        for (final String vin : vins) {
+            assertSameValidation(vin);
+        }
+    }
+
+    @Test
+    public void shouldAgreeWithNormalizingValidationOnRandomInputs() {
+        final String chars = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz -_/.\u00DF\u0131\u017F\u00E9\u0130";
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            final StringBuilder vin = new StringBuilder();
+            final int length = 15 + random.nextInt(5);
+
+            for (int j = 0; j < length; j++) {
+                vin.append(chars.charAt(random.nextInt(random.nextBoolean() ? 33 : chars.length())));
+            }
+
+            assertSameValidation(vin.toString());
+        }
+    }
+
+    @Test
+    public void shouldAgreeWithNormalizingValidationOnGeneratedVins() {
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 10000; i++) {
+            final char[] vin = VinGeneratorUtils.getRandomVin().toCharArray();
+
+            if (random.nextBoolean()) {
+                vin[random.nextInt(17)] = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".charAt(random.nextInt(36));
+            }
+
+            assertSameValidation(new String(vin));
+            assertSameValidation(new String(vin).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    @Test
+    public void shouldAgreeWithNormalizingValidationInTurkishLocale() {
+        final Locale locale = Locale.getDefault();
+
+        try {
+            Locale.setDefault(new Locale("tr", "TR"));
+
+            assertSameValidation("2G1WB5E37E111056i7");
+            assertSameValidation("2g1wb5e37e1110567");
+            assertSameValidation("2G1WB5E37E1110567");
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    private static void assertSameValidation(final String vin) {
+        final Object expected = normalizingValidation(vin);
+        Object actual;
+
+        try {
+            actual = VinValidatorUtils.validateVin(vin);
+        } catch (InvalidVinException e) {
+            actual = e.getWrongVin() + ": " + e.getMessage();
+        }
+
+        assertEquals("Validation of '" + vin + "' differs", expected, actual);
+
+        Object expectedCheckSum;
+        Object actualCheckSum;
+
+        try {
+            expectedCheckSum = normalizingCheckSum(vin);
+        } catch (InvalidVinException e) {
+            expectedCheckSum = e.getWrongVin() + ": " + e.getMessage();
+        }
+
+        try {
+            actualCheckSum = VinValidatorUtils.getVinCheckSum(vin);
+        } catch (InvalidVinException e) {
+            actualCheckSum = e.getWrongVin() + ": " + e.getMessage();
+        }
+
+        assertEquals("Checksum of '" + vin + "' differs", expectedCheckSum, actualCheckSum);
+        assertEquals("Validity of '" + vin + "' differs", Boolean.TRUE.equals(expected), VinValidatorUtils.isValidVin(vin));
+    }
+
+    /**
+     * Validation, which normalizes VIN with {@link String#toUpperCase()} and regex before checksum calculation
+     */
+    private static Object normalizingValidation(final String vin) {
+        try {
+            final String normalized = normalizeVin(vin);
+            final int sum = normalizingCheckSum(normalized);
+            final char check = normalized.charAt(8);
+
+            if (check != 'X' && (check < '0' || check > '9')) {
+                throw new InvalidVinException(normalized, "Illegal check digit '" + check + "' for VIN '" + normalized + "'");
+            }
+
+            return (sum == 10 && check == 'X') || (sum == check - '0');
+        } catch (InvalidVinException e) {
+            return e.getWrongVin() + ": " + e.getMessage();
+        }
+    }
+
+    private static int normalizingCheckSum(final String vin) throws InvalidVinException {
+        final int[] weights = {8, 7, 6, 5, 4, 3, 2, 10, 0, 9, 8, 7, 6, 5, 4, 3, 2};
+        final int[] letterValues = {1, 2, 3, 4, 5, 6, 7, 8, 0, 1, 2, 3, 4, 5, 0, 7, 0, 9, 2, 3, 4, 5, 6, 7, 8, 9};
+        final String normalized = normalizeVin(vin);
+
+        int sum = 0;
+
+        for (int i = 0; i < 17; i++) {
+            final char key = normalized.charAt(i);
+
+            int value;
+            if (key >= 'A' && key <= 'Z') {
+                value = letterValues[key - 'A'];
+
+                if (value == 0) {
+                    throw new InvalidVinException(normalized, String.format("Illegal character '%s' in VIN '%s' at position %d", key, normalized, i));
+                }
+            } else {
+                value = Character.getNumericValue(key);
+            }
+
+            sum += value * weights[i];
+        }
+
+        return sum % 11;
+    }
+
+    private static String normalizeVin(final String vin) throws InvalidVinException {
+        if (vin == null) {
+            throw new InvalidVinException(null, "VIN should not be null");
+        }
+
+        final String normalized = vin.toUpperCase().replaceAll("[^A-Z0-9]", "");
+
+        if (normalized.length() != 17) {
+            throw new InvalidVinException(normalized, "Length of VIN (without possible additional characters) should equal 17");
+        }
+
+        return normalized;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin.constraint;
+
+import org.junit.Test;
+
+import javax.validation.ConstraintValidatorContext;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class VinValidatorTest {
+    @VIN
+    private String lenient;
+
+    @VIN(normalize = false, allowSeparators = false)
+    private String strict;
+
+    private final List<String> templates = new ArrayList<>();
+
+    @Test
+    public void shouldAcceptNormalizedVinByDefault() throws NoSuchFieldException {
+        final VinValidator validator = validator("lenient");
+
+        assertTrue(validator.isValid("2G1WB5E37E1110567", context()));
+        assertTrue(validator.isValid("2g1-wb5e37e1110567", context()));
+        assertTrue("No violation should be added for valid VIN", this.templates.isEmpty());
+    }
+
+    @Test
+    public void shouldRejectNotNormalizedVinInStrictMode() throws NoSuchFieldException {
+        final VinValidator validator = validator("strict");
+
+        assertTrue(validator.isValid("2G1WB5E37E1110567", context()));
+        assertFalse(validator.isValid("2g1wb5e37e1110567", context()));
+        assertFalse(validator.isValid("2G1-WB5E37E111056", context()));
+        assertEquals("Provided VIN is incorrect. Illegal character at position 1", this.templates.get(0));
+        assertEquals("Provided VIN is incorrect. Illegal character at position 3", this.templates.get(1));
+    }
+
+    @Test
+    public void shouldReportTemplatePerError() throws NoSuchFieldException {
+        final VinValidator validator = validator("lenient");
+
+        assertFalse(validator.isValid(null, context()));
+        assertFalse(validator.isValid("2G1WB5E37E111056", context()));
+        assertFalse(validator.isValid("2G1WB5E3AE1110567", context()));
+        assertFalse(validator.isValid("2G1WB5E36E1110567", context()));
+        assertFalse(validator.isValid("2G1WB5E36E1110568", context()));
+
+        assertEquals("Provided VIN is incorrect. VIN should not be null", this.templates.get(0));
+        assertEquals("Provided VIN is incorrect. Length of VIN (without possible additional characters) should equal 17", this.templates.get(1));
+        assertEquals("Provided VIN is incorrect. Illegal check digit at position 8", this.templates.get(2));
+        assertEquals("Provided VIN is incorrect. Check digit does not match checksum of VIN", this.templates.get(3));
+        assertSame("Templates should be reused", this.templates.get(3), this.templates.get(4));
+    }
+
+    private VinValidator validator(final String field) throws NoSuchFieldException {
+        final VinValidator validator = new VinValidator();
+
+        validator.initialize(getClass().getDeclaredField(field).getAnnotation(VIN.class));
+
+        return validator;
+    }
+
+    /**
+     * Context, recording templates of added violations
+     */
+    private ConstraintValidatorContext context() {
+        final ConstraintValidatorContext.ConstraintViolationBuilder builder =
+                (ConstraintValidatorContext.ConstraintViolationBuilder) Proxy.newProxyInstance(
+                        getClass().getClassLoader(),
+                        new Class<?>[]{ConstraintValidatorContext.ConstraintViolationBuilder.class},
+                        (proxy, method, args) -> null);
+
+        return (ConstraintValidatorContext) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{ConstraintValidatorContext.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("buildConstraintViolationWithTemplate")) {
+                        this.templates.add((String) args[0]);
+                        return builder;
+                    }
+
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Mykhailo Kyrychenko <mykhailo.kyrychenko@gmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.kyrychenko.utils.vin;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VinValidationFlowProcessorTest {
+    private static final String WRONG_VIN = "2G1WB5E36E1110567";
+
+    private final List<String> valid = new CopyOnWriteArrayList<>();
+    private final List<VinReject> rejects = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    @Test
+    public void shouldValidateItemsOfPublisher() throws InterruptedException {
+        final VinValidationFlowProcessor processor = new VinValidationFlowProcessor(8);
+        final CountDownLatch completed = new CountDownLatch(2);
+
+        processor.subscribe(new Collector<>(this.valid, completed, 1));
+        processor.getRejects().subscribe(new Collector<>(this.rejects, completed, Long.MAX_VALUE));
+
+        try (final SubmissionPublisher<CharSequence> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+
+            for (int i = 0; i < 100; i++) {
+                publisher.submit(i % 5 == 0 ? WRONG_VIN : VinGeneratorUtils.getRandomVin());
+            }
+        }
+
+        assertTrue("Both outputs should complete", completed.await(10, TimeUnit.SECONDS));
+        assertNull(this.error.get());
+        assertEquals(80, this.valid.size());
+        assertEquals(20, this.rejects.size());
+        assertEquals(VinValidationStatus.CHECK_DIGIT_MISMATCH, this.rejects.get(0).getStatus());
+    }
+
+    @Test
+    public void shouldSignalErrorOnNonPositiveRequest() {
+        final VinValidationFlowProcessor processor = new VinValidationFlowProcessor(8);
+        final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+
+        processor.subscribe(new Flow.Subscriber<String>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription value) {
+                subscription.set(value);
+            }
+
+            @Override
+            public void onNext(final String vin) {
+                valid.add(vin);
+            }
+
+            @Override
+            public void onError(final Throwable value) {
+                error.set(value);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        subscription.get().request(0);
+
+        assertTrue(this.error.get() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void shouldIsolateRejectedSubscriber() {
+        final VinValidationFlowProcessor processor = new VinValidationFlowProcessor(1);
+        final AtomicReference<Flow.Subscription> rejected = new AtomicReference<>();
+        final AtomicReference<Throwable> rejection = new AtomicReference<>();
+
+        processor.subscribe(new Collector<>(this.valid, new CountDownLatch(1), 1));
+        processor.subscribe(new Flow.Subscriber<String>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                rejected.set(subscription);
+            }
+
+            @Override
+            public void onNext(final String vin) {
+                fail("Rejected subscriber should not receive items");
+            }
+
+            @Override
+            public void onError(final Throwable value) {
+                rejection.set(value);
+            }
+
+            @Override
+            public void onComplete() {
+                fail("Rejected subscriber should not complete");
+            }
+        });
+
+        assertTrue(rejection.get() instanceof IllegalStateException);
+        rejected.get().request(5);
+        rejected.get().cancel();
+
+        processor.onSubscribe(new Flow.Subscription() {
+            private int produced;
+
+            @Override
+            public void request(final long count) {
+                if (this.produced++ < 10) {
+                    processor.onNext(VinGeneratorUtils.getRandomVin());
+                }
+            }
+
+            @Override
+            public void cancel() {
+                fail("Upstream should not be cancelled by rejected subscriber");
+            }
+        });
+
+        assertNull(this.error.get());
+        assertEquals("First subscriber should keep receiving items", 10, this.valid.size());
+    }
+
+    private final class Collector<T> implements Flow.Subscriber<T> {
+        private final List<T> items;
+        private final CountDownLatch completed;
+        private final long batch;
+        private Flow.Subscription subscription;
+
+        private Collector(final List<T> items, final CountDownLatch completed, final long batch) {
+            this.items = items;
+            this.completed = completed;
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(this.batch);
+        }
+
+        @Override
+        public void onNext(final T item) {
+            this.items.add(item);
+            this.subscription.request(this.batch);
+        }
+
+        @Override
+        public void onError(final Throwable value) {
+            error.set(value);
+            this.completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed.countDown();
+        }
+    }
+}